@@ -49,6 +49,8 @@ export interface Organization {
   name: string;
   description?: string;
   userCount?: number;
+  // DELETING while a background deletion job is removing the organization
+  status?: 'ACTIVE' | 'DELETING' | null;
 }
 
 export interface CreateOrganizationRequest {
@@ -61,10 +63,34 @@ export interface UpdateOrganizationRequest {
   description?: string;
 }
 
+// Keyset-paginated list response
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
+// Follows nextCursor until the listing is exhausted
+const fetchAllPages = async <T>(url: string, params: Record<string, unknown> = {}): Promise<T[]> => {
+  const items: T[] = [];
+  let cursor: string | null = null;
+  do {
+    const response: { data: CursorPage<T> } = await apiClient.get(url, {
+      params: { ...params, cursor: cursor ?? undefined },
+    });
+    items.push(...response.data.items);
+    cursor = response.data.nextCursor;
+  } while (cursor);
+  return items;
+};
+
 // User API methods
 export const userApi = {
   getAll: async (): Promise<User[]> => {
-    const response = await apiClient.get('/api/superadmin/users');
+    return fetchAllPages<User>('/api/superadmin/users');
+  },
+
+  getPage: async (cursor?: string, size?: number): Promise<CursorPage<User>> => {
+    const response = await apiClient.get('/api/superadmin/users', { params: { cursor, size } });
     return response.data;
   },
 
@@ -73,6 +99,11 @@ export const userApi = {
     return response.data;
   },
 
+  search: async (organizationId: number, q: string, limit?: number): Promise<User[]> => {
+    const response = await apiClient.get(`/api/superadmin/users/organization/${organizationId}/search`, { params: { q, limit } });
+    return response.data;
+  },
+
   create: async (user: CreateUserRequest): Promise<User> => {
     const response = await apiClient.post(`/api/superadmin/users/organization/${user.organizationId}`, user);
     return response.data;
@@ -96,7 +127,12 @@ export const userApi = {
 // Admin API methods (organization-specific)
 export const adminApi = {
   getOrganizationUsers: async (): Promise<User[]> => {
-    const response = await apiClient.get('/api/admin/users');
+    return fetchAllPages<User>('/api/admin/users');
+  },
+
+  // Typeahead over the admin's organization: email prefix matches first, then substrings
+  searchUsers: async (q: string, limit?: number): Promise<User[]> => {
+    const response = await apiClient.get('/api/admin/users/search', { params: { q, limit } });
     return response.data;
   },
 
@@ -148,17 +184,68 @@ export const organizationApi = {
 };
 
 // Dashboard stats API
+export interface OrganizationHeadcount {
+  id: number;
+  name: string;
+  totalUsers: number;
+  firstLoginPending: number;
+  usersByRole: Record<string, number>;
+}
+
+export interface DirectoryStats {
+  totalUsers: number;
+  totalOrganizations: number;
+  firstLoginPending: number;
+  usersByRole: Record<string, number>;
+  organizations: OrganizationHeadcount[];
+}
+
+// Aggregated on the server; no user lists are downloaded
 export const statsApi = {
   getDashboardStats: async () => {
-    const [users, organizations] = await Promise.all([
-      userApi.getAll(),
-      organizationApi.getAll()
-    ]);
+    const response = await apiClient.get<DirectoryStats>('/api/superadmin/stats');
+    const stats = response.data;
 
     return {
-      totalUsers: users.length,
-      totalOrganizations: organizations.length,
-      activeUsers: users.filter(u => u.active).length,
+      totalUsers: stats.totalUsers,
+      totalOrganizations: stats.totalOrganizations,
+      activeUsers: stats.totalUsers - stats.firstLoginPending,
     };
+  },
+
+  getOrganizationStats: async (): Promise<DirectoryStats> => {
+    const response = await apiClient.get<DirectoryStats>('/api/admin/stats');
+    return response.data;
+  }
+};
+
+export interface Change {
+  entity: 'USER' | 'ORGANIZATION';
+  id: number;
+  changeType: 'CREATED' | 'UPDATED' | 'DELETED';
+  user?: User;
+  organization?: Organization;
+}
+
+export interface ChangeBatch {
+  changes: Change[];
+  nextCursor: string;
+  hasMore: boolean;
+}
+
+// Delta sync: get a cursor, load the listing once, then follow changes (CREATED/UPDATED are upserts).
+// A 410 response means the cursor has expired; reload the listing and start again from a fresh cursor.
+export const changesApi = {
+  getCursor: async (organizationId?: number): Promise<string> => {
+    const response = await apiClient.get<ChangeBatch>('/api/changes', { params: { organizationId } });
+    return response.data.nextCursor;
+  },
+
+  since: async (cursor: string, wait = 25, organizationId?: number): Promise<ChangeBatch> => {
+    const response = await apiClient.get<ChangeBatch>('/api/changes', {
+      params: { since: cursor, wait, organizationId },
+      timeout: (wait + 10) * 1000,
+    });
+    return response.data;
   }
 };
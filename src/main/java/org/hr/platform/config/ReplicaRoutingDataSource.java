@@ -0,0 +1,159 @@
+package org.hr.platform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hr.platform.util.SecurityUtil;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to replica pools and everything else to the primary.
+ * <p>
+ * The physical connection is only picked at the first statement, once the transaction's read-only
+ * flag is known. Reads still go to the primary when the current principal ran a read-write
+ * transaction within the read-your-writes window, and when no replica is healthy. A replica whose
+ * pool fails to hand out a connection is taken out of rotation until the next health check.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final String METRIC = "datasource.routing.connections";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long readYourWritesMillis;
+    private final Map<String, Long> lastWriteByPrincipal = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter writes;
+    private final Counter readYourWritesReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                    long readYourWritesMillis, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWritesMillis = readYourWritesMillis;
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool, meterRegistry.counter(METRIC, "pool", pool.getPoolName(), "reason", "read"));
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+        this.writes = meterRegistry.counter(METRIC, "pool", primary.getPoolName(), "reason", "write");
+        this.readYourWritesReads = meterRegistry.counter(METRIC, "pool", primary.getPoolName(), "reason", "read-your-writes");
+        this.fallbackReads = meterRegistry.counter(METRIC, "pool", primary.getPoolName(), "reason", "fallback");
+
+        setTargetDataSource(new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return route();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                throw new UnsupportedOperationException("Routing connections use the pools' own credentials");
+            }
+        });
+        afterPropertiesSet();
+    }
+
+    private Connection route() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                noteWrite();
+            }
+            writes.increment();
+            return primary.getConnection();
+        }
+        if (wroteRecently()) {
+            readYourWritesReads.increment();
+            return primary.getConnection();
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                replica.reads.increment();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} unavailable, taking it out of rotation: {}", replica.pool.getPoolName(), e.getMessage());
+                replica.healthy = false;
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    private void noteWrite() {
+        String principal = SecurityUtil.getCurrentUserEmail();
+        if (principal != null && readYourWritesMillis > 0) {
+            lastWriteByPrincipal.put(principal, System.currentTimeMillis());
+        }
+    }
+
+    private boolean wroteRecently() {
+        String principal = SecurityUtil.getCurrentUserEmail();
+        if (principal == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByPrincipal.get(principal);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < readYourWritesMillis;
+    }
+
+    /**
+     * Re-validates every replica, putting recovered ones back into rotation, and forgets writes
+     * older than the read-your-writes window.
+     */
+    public void checkReplicas(int timeoutSeconds) {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection()) {
+                healthy = connection.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {}", replica.pool.getPoolName(), healthy ? "healthy" : "unhealthy");
+            }
+            replica.healthy = healthy;
+        }
+        long cutoff = System.currentTimeMillis() - readYourWritesMillis;
+        lastWriteByPrincipal.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private static class Replica {
+        private final HikariDataSource pool;
+        private final Counter reads;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool, Counter reads) {
+            this.pool = pool;
+            this.reads = reads;
+        }
+    }
+}
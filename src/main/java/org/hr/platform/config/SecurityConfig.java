@@ -1,7 +1,9 @@
 package org.hr.platform.config;
 
 import lombok.RequiredArgsConstructor;
+import org.hr.platform.security.AdaptivePasswordEncoderFactory;
 import org.hr.platform.security.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,7 +12,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -28,6 +29,18 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final CustomUserDetailsService customUserDetailsService;
 
+    @Value("${auth.password.algorithm:bcrypt}")
+    private String passwordAlgorithm;
+
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${auth.password.calibrate:false}")
+    private boolean calibratePasswordHashing;
+
+    @Value("${auth.password.target-millis:250}")
+    private long passwordHashingTargetMillis;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -65,8 +78,8 @@ public class SecurityConfig {
         // Allow credentials (cookies, authorization headers, etc.)
         configuration.setAllowCredentials(true);
 
-        // Expose Authorization header to frontend
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        // Expose Authorization header to frontend, and ETag for conditional list requests
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "ETag"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -78,12 +91,15 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Re-hashes outdated passwords with the current algorithm/cost after a successful login
+        authProvider.setUserDetailsPasswordService(customUserDetailsService);
         return authProvider;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return AdaptivePasswordEncoderFactory.create(
+                passwordAlgorithm, bcryptStrength, calibratePasswordHashing, passwordHashingTargetMillis);
     }
 
     @Bean
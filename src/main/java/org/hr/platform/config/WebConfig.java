@@ -0,0 +1,31 @@
+package org.hr.platform.config;
+
+import lombok.RequiredArgsConstructor;
+import org.hr.platform.security.CurrentPrincipalArgumentResolver;
+import org.hr.platform.security.TenantFilterInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final TenantFilterInterceptor tenantFilterInterceptor;
+    private final CurrentPrincipalArgumentResolver currentPrincipalArgumentResolver;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // After the open-in-view interceptor has bound the request's EntityManager
+        registry.addInterceptor(tenantFilterInterceptor).order(Ordered.LOWEST_PRECEDENCE);
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentPrincipalArgumentResolver);
+    }
+}
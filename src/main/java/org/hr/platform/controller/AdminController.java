@@ -1,17 +1,35 @@
 package org.hr.platform.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.hr.platform.dto.AssignManagerRequest;
+import org.hr.platform.dto.BulkOperationResult;
+import org.hr.platform.dto.BulkUserRequest;
 import org.hr.platform.dto.CreateUserRequest;
+import org.hr.platform.dto.DirectoryStats;
+import org.hr.platform.dto.ImportResult;
 import org.hr.platform.dto.UpdateUserRequest;
+import org.hr.platform.dto.UserDto;
+import org.hr.platform.enums.DataFormat;
+import org.hr.platform.enums.Role;
+import org.hr.platform.security.CurrentPrincipal;
 import org.hr.platform.service.AdminService;
+import org.hr.platform.service.DirectoryVersions;
+import org.hr.platform.service.ReportingLineService;
+import org.hr.platform.service.StatsService;
+import org.hr.platform.service.UserBulkService;
+import org.hr.platform.service.UserImportService;
+import org.hr.platform.service.UserSearchIndex;
 import org.hr.platform.service.UserService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
@@ -19,41 +37,134 @@ public class AdminController {
 
     private final UserService userService;
     private final AdminService adminService;
+    private final UserImportService userImportService;
+    private final UserBulkService userBulkService;
+    private final StatsService statsService;
+    private final DirectoryVersions directoryVersions;
+    private final UserSearchIndex userSearchIndex;
+    private final ReportingLineService reportingLineService;
 
     @GetMapping("/users")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<?> getAllUsersInOrg(@AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(adminService.listAllUsersInOrg());
+    public ResponseEntity<?> getAllUsersInOrg(
+            CurrentPrincipal admin,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        // 304 straight from the version counters, before any query runs
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(admin.organizationId(), "users", role, cursor, size))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(adminService.listAllUsersInOrg(admin, role, cursor, size));
+    }
+
+    // Typeahead: email prefix matches first, then substring matches
+    @GetMapping("/users/search")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<List<UserDto>> searchUsers(
+            CurrentPrincipal admin,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(admin.organizationId(), "search", q, limit))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(userSearchIndex.search(admin.organizationId(), q, limit));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<DirectoryStats> getStats(CurrentPrincipal admin, WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(admin.organizationId(), "stats"))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(statsService.getOrganizationStats(admin.organizationId()));
     }
 
     @PutMapping("/users/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<String> updateUser(
-            @AuthenticationPrincipal UserDetails userDetails,
+            CurrentPrincipal admin,
             @PathVariable Long id,
             @RequestBody UpdateUserRequest request
     ) {
-        userService.updateUser(userDetails.getUsername(), id, request);
+        userService.updateUser(admin.organizationId(), id, request);
         return ResponseEntity.ok("User updated successfully");
     }
 
+    // Moves the user, together with everyone reporting to them, under another manager (null: no manager)
+    @PutMapping("/users/{id}/manager")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<String> assignManager(
+            CurrentPrincipal admin,
+            @PathVariable Long id,
+            @RequestBody AssignManagerRequest request
+    ) {
+        reportingLineService.assignManager(admin.organizationId(), id, request.getManagerId());
+        return ResponseEntity.ok("Manager updated successfully");
+    }
+
     @PostMapping("/create-user")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<String> createUser(
-            @AuthenticationPrincipal UserDetails userDetails,
+            CurrentPrincipal admin,
             @RequestBody CreateUserRequest request
     ) {
-        adminService.createUser(request);
+        adminService.createUser(admin, request);
         return ResponseEntity.ok("User created successfully");
     }
 
+    @PostMapping("/users/import")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ImportResult> importUsers(
+            CurrentPrincipal admin,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request
+    ) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(admin.organizationId(), DataFormat.from(format), request.getInputStream()));
+    }
+
+    @PostMapping("/users/bulk/role")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkOperationResult> bulkChangeRole(
+            CurrentPrincipal admin,
+            @RequestBody BulkUserRequest request
+    ) {
+        return ResponseEntity.ok(userBulkService.changeRole(admin, admin.organizationId(), request));
+    }
+
+    @PostMapping("/users/bulk/force-password-reset")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkOperationResult> bulkForcePasswordReset(
+            CurrentPrincipal admin,
+            @RequestBody BulkUserRequest request
+    ) {
+        return ResponseEntity.ok(userBulkService.forcePasswordReset(admin, admin.organizationId(), request));
+    }
+
+    @PostMapping("/users/bulk/delete")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkOperationResult> bulkDelete(
+            CurrentPrincipal admin,
+            @RequestBody BulkUserRequest request
+    ) {
+        return ResponseEntity.ok(userBulkService.delete(admin, admin.organizationId(), request));
+    }
+
     @DeleteMapping("/users/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<String> deleteUser(
-            @AuthenticationPrincipal UserDetails userDetails,
+            CurrentPrincipal admin,
             @PathVariable Long id
     ) {
-        adminService.deleteUser(id);
+        adminService.deleteUser(admin, id);
         return ResponseEntity.ok("User deleted successfully");
     }
 }
@@ -1,31 +1,50 @@
 package org.hr.platform.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.hr.platform.dto.AuthRequest;
 import org.hr.platform.dto.AuthResponse;
 import org.hr.platform.dto.RefreshTokenRequest;
 import org.hr.platform.dto.TokenResponse;
+import org.hr.platform.security.LoginRateLimiter;
 import org.hr.platform.service.AuthService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest request) {
-        try {
-            return ResponseEntity.ok(authService.login(request));
-        } catch (Exception e) {
-            // Log the actual error for debugging
-            System.err.println("Login error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(500).build();
-        }
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest request,
+                                                                 HttpServletRequest httpRequest) {
+        // Over-limit attempts are refused (429) before any repository lookup or password hashing
+        loginRateLimiter.checkLoginAttempt(httpRequest.getRemoteAddr(), request.getEmail());
+
+        // Rejection by a saturated hashing pool is thrown here and mapped to 503 by GlobalExceptionHandler
+        return authService.loginAsync(request)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof AuthenticationException) {
+                        // Wrong credentials are routine; no stack trace per failed attempt
+                        log.debug("Login rejected: {}", cause.getMessage());
+                        return ResponseEntity.status(401).build();
+                    }
+                    // Log the actual error for debugging
+                    log.warn("Login error: {}", cause.getMessage(), cause);
+                    return ResponseEntity.status(500).build();
+                });
     }
 
     @PostMapping("/refresh")
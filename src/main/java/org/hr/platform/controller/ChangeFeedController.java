@@ -0,0 +1,34 @@
+package org.hr.platform.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.hr.platform.dto.ChangeBatch;
+import org.hr.platform.security.CurrentPrincipal;
+import org.hr.platform.service.ChangeFeedService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Delta sync: call without {@code since} for the current cursor, load the listing once, then
+     * follow the feed. {@code wait} (seconds) long-polls when nothing has changed yet. Admins see
+     * their own organization; superadmins see every organization unless {@code organizationId} is given.
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
+    public DeferredResult<ChangeBatch> getChanges(
+            CurrentPrincipal principal,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer wait,
+            @RequestParam(required = false) Long organizationId) {
+        Long scope = principal.isSuperAdmin() ? organizationId : principal.organizationId();
+        return changeFeedService.poll(scope, since, limit, wait);
+    }
+}
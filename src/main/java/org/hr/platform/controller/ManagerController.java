@@ -1,12 +1,15 @@
 package org.hr.platform.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.hr.platform.security.CurrentPrincipal;
+import org.hr.platform.dto.ReportingCounts;
+import org.hr.platform.service.DirectoryVersions;
+import org.hr.platform.service.ReportingLineService;
 import org.hr.platform.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/manager")
@@ -14,10 +17,63 @@ import org.springframework.web.bind.annotation.*;
 public class ManagerController {
 
     private final UserService userService;
+    private final DirectoryVersions directoryVersions;
+    private final ReportingLineService reportingLineService;
 
     @GetMapping("/employees")
     @PreAuthorize("hasAuthority('MANAGER')")
-    public ResponseEntity<?> getEmployeesInOrg(@AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(userService.getEmployeesInOrg(userDetails.getUsername()));
+    public ResponseEntity<?> getEmployeesInOrg(
+            CurrentPrincipal manager,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(manager.organizationId(), "employees", cursor, size))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(userService.getEmployeesInOrg(manager, cursor, size));
+    }
+
+    @GetMapping("/reports")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public ResponseEntity<?> getDirectReports(
+            CurrentPrincipal manager,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(manager.organizationId(), "reports", manager.userId(), cursor, size))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(reportingLineService.getDirectReports(manager.organizationId(), manager.userId(), cursor, size));
+    }
+
+    // Everyone under the manager at any depth
+    @GetMapping("/reports/all")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public ResponseEntity<?> getReportingLine(
+            CurrentPrincipal manager,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(manager.organizationId(), "reports-all", manager.userId(), cursor, size))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(reportingLineService.getReportingLine(manager.organizationId(), manager.userId(), cursor, size));
+    }
+
+    @GetMapping("/reports/count")
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public ResponseEntity<ReportingCounts> countReports(CurrentPrincipal manager, WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(manager.organizationId(), "reports-count", manager.userId()))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(reportingLineService.countReports(manager.userId()));
     }
 }
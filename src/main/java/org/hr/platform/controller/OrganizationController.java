@@ -2,10 +2,15 @@ package org.hr.platform.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.CreateOrganizationRequest;
+import org.hr.platform.dto.OrganizationDeletionJobDto;
+import org.hr.platform.service.DirectoryVersions;
 import org.hr.platform.service.OrganizationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/organizations")
@@ -13,11 +18,17 @@ import org.springframework.web.bind.annotation.*;
 public class OrganizationController {
 
     private final OrganizationService organizationService;
+    private final DirectoryVersions directoryVersions;
 
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ADMIN', 'SUPERADMIN')")
-    public ResponseEntity<?> getAllOrganizations() {
-        return ResponseEntity.ok(organizationService.getAllOrganizations());
+    public ResponseEntity<?> getAllOrganizations(WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationsTag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(organizationService.getAllOrganizations());
     }
 
     @PostMapping
@@ -29,8 +40,16 @@ public class OrganizationController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('SUPERADMIN')")
-    public ResponseEntity<String> deleteOrganization(@PathVariable Long id) {
-        organizationService.deleteOrganization(id);
-        return ResponseEntity.ok("Organization deleted successfully");
+    public ResponseEntity<OrganizationDeletionJobDto> deleteOrganization(@PathVariable Long id) {
+        OrganizationDeletionJobDto job = organizationService.deleteOrganization(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/organizations/deletions/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/deletions/{jobId}")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public ResponseEntity<OrganizationDeletionJobDto> getDeletionJob(@PathVariable String jobId) {
+        return ResponseEntity.of(organizationService.getDeletionJob(jobId));
     }
 }
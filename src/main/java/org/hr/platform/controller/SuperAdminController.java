@@ -1,17 +1,39 @@
 package org.hr.platform.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.CreateOrganizationRequest;
 import org.hr.platform.dto.CreateSuperAdminRequest;
+import org.hr.platform.dto.BulkOperationResult;
+import org.hr.platform.dto.BulkUserRequest;
 import org.hr.platform.dto.CreateUserRequest;
+import org.hr.platform.dto.DirectoryStats;
+import org.hr.platform.dto.ImportResult;
+import org.hr.platform.dto.OrganizationDeletionJobDto;
 import org.hr.platform.dto.UpdateUserRequest;
+import org.hr.platform.dto.UserDto;
+import org.hr.platform.enums.DataFormat;
+import org.hr.platform.enums.Role;
+import org.hr.platform.security.CurrentPrincipal;
+import org.hr.platform.service.DirectoryVersions;
 import org.hr.platform.service.OrganizationService;
+import org.hr.platform.service.StatsService;
 import org.hr.platform.service.SuperAdminService;
+import org.hr.platform.service.UserExportService;
+import org.hr.platform.service.UserBulkService;
+import org.hr.platform.service.UserImportService;
+import org.hr.platform.service.UserSearchIndex;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/superadmin")
@@ -20,6 +42,12 @@ public class SuperAdminController {
 
     private final SuperAdminService superAdminService;
     private final OrganizationService organizationService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserBulkService userBulkService;
+    private final StatsService statsService;
+    private final DirectoryVersions directoryVersions;
+    private final UserSearchIndex userSearchIndex;
 
     // SuperAdmin management
     @PostMapping("/create-superadmin")
@@ -38,17 +66,33 @@ public class SuperAdminController {
     @DeleteMapping("/superadmins/{id}")
     @PreAuthorize("hasAuthority('SUPERADMIN')")
     public ResponseEntity<String> deleteSuperAdmin(
-            @AuthenticationPrincipal UserDetails userDetails,
+            CurrentPrincipal superAdmin,
             @PathVariable Long id) {
-        superAdminService.deleteSuperAdmin(userDetails.getUsername(), id);
+        superAdminService.deleteSuperAdmin(superAdmin, id);
         return ResponseEntity.ok("SuperAdmin deleted successfully");
     }
 
+    @GetMapping("/stats")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public ResponseEntity<DirectoryStats> getStats(WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.globalTag("stats"))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(statsService.getGlobalStats());
+    }
+
     // Organization management
     @GetMapping("/organizations")
     @PreAuthorize("hasAuthority('SUPERADMIN')")
-    public ResponseEntity<?> getAllOrganizations() {
-        return ResponseEntity.ok(superAdminService.getAllOrganizations());
+    public ResponseEntity<?> getAllOrganizations(WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationsTag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(superAdminService.getAllOrganizations());
     }
 
     @PostMapping("/organizations")
@@ -58,24 +102,88 @@ public class SuperAdminController {
         return ResponseEntity.ok("Organization created successfully");
     }
 
+    // Deletion runs in the background; poll the job returned in the body / Location header
     @DeleteMapping("/organizations/{id}")
     @PreAuthorize("hasAuthority('SUPERADMIN')")
-    public ResponseEntity<String> deleteOrganization(@PathVariable Long id) {
-        organizationService.deleteOrganization(id);
-        return ResponseEntity.ok("Organization deleted successfully");
+    public ResponseEntity<OrganizationDeletionJobDto> deleteOrganization(@PathVariable Long id) {
+        OrganizationDeletionJobDto job = organizationService.deleteOrganization(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/superadmin/organizations/deletions/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/organizations/deletions/{jobId}")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public ResponseEntity<OrganizationDeletionJobDto> getDeletionJob(@PathVariable String jobId) {
+        return ResponseEntity.of(organizationService.getDeletionJob(jobId));
     }
 
     // Global user management (across all organizations)
     @GetMapping("/users")
     @PreAuthorize("hasAuthority('SUPERADMIN')")
-    public ResponseEntity<?> getAllUsers() {
-        return ResponseEntity.ok(superAdminService.getAllUsers());
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) Long organizationId,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        String etag = organizationId != null
+                ? directoryVersions.organizationTag(organizationId, "users", role, cursor, size)
+                : directoryVersions.globalTag("users", role, cursor, size);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(superAdminService.getAllUsers(organizationId, role, cursor, size));
     }
 
     @GetMapping("/users/organization/{orgId}")
     @PreAuthorize("hasAuthority('SUPERADMIN')")
-    public ResponseEntity<?> getUsersByOrganization(@PathVariable Long orgId) {
-        return ResponseEntity.ok(superAdminService.getUsersByOrganization(orgId));
+    public ResponseEntity<?> getUsersByOrganization(
+            @PathVariable Long orgId,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(orgId, "users", role, cursor, size))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(superAdminService.getUsersByOrganization(orgId, role, cursor, size));
+    }
+
+    @GetMapping("/users/organization/{orgId}/search")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public ResponseEntity<List<UserDto>> searchUsers(
+            @PathVariable Long orgId,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(directoryVersions.organizationTag(orgId, "search", q, limit))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(DirectoryVersions.CACHE_CONTROL)
+                .body(userSearchIndex.search(orgId, q, limit));
+    }
+
+    // Streaming exports: ?format=ndjson (default) or csv
+    @GetMapping("/users/export")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public WebAsyncTask<Void> exportAllUsers(@RequestParam(required = false) String format,
+                                             HttpServletResponse response) {
+        return export(null, DataFormat.from(format), "users", response);
+    }
+
+    @GetMapping("/users/organization/{orgId}/export")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public WebAsyncTask<Void> exportOrganizationUsers(
+            @PathVariable Long orgId,
+            @RequestParam(required = false) String format,
+            HttpServletResponse response) {
+        return export(orgId, DataFormat.from(format), "users-org-" + orgId, response);
     }
 
     @PostMapping("/users/organization/{orgId}")
@@ -87,6 +195,44 @@ public class SuperAdminController {
         return ResponseEntity.ok("User created successfully");
     }
 
+    // Bulk import: CSV (email,password,role header) or NDJSON body, ?format=csv|ndjson
+    @PostMapping("/users/organization/{orgId}/import")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public ResponseEntity<ImportResult> importUsers(
+            @PathVariable Long orgId,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(orgId, DataFormat.from(format), request.getInputStream()));
+    }
+
+    // Bulk operations on a list of ids and/or a role filter within one organization
+    @PostMapping("/users/organization/{orgId}/bulk/role")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public ResponseEntity<BulkOperationResult> bulkChangeRole(
+            CurrentPrincipal superAdmin,
+            @PathVariable Long orgId,
+            @RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(userBulkService.changeRole(superAdmin, orgId, request));
+    }
+
+    @PostMapping("/users/organization/{orgId}/bulk/force-password-reset")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public ResponseEntity<BulkOperationResult> bulkForcePasswordReset(
+            CurrentPrincipal superAdmin,
+            @PathVariable Long orgId,
+            @RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(userBulkService.forcePasswordReset(superAdmin, orgId, request));
+    }
+
+    @PostMapping("/users/organization/{orgId}/bulk/delete")
+    @PreAuthorize("hasAuthority('SUPERADMIN')")
+    public ResponseEntity<BulkOperationResult> bulkDelete(
+            CurrentPrincipal superAdmin,
+            @PathVariable Long orgId,
+            @RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(userBulkService.delete(superAdmin, orgId, request));
+    }
+
     @PutMapping("/users/{userId}")
     @PreAuthorize("hasAuthority('SUPERADMIN')")
     public ResponseEntity<String> updateUser(
@@ -102,4 +248,15 @@ public class SuperAdminController {
         superAdminService.deleteUserAcrossOrganizations(userId);
         return ResponseEntity.ok("User deleted successfully");
     }
+
+    // Streamed from an async task carrying the export timeout, so no other async request inherits it
+    private WebAsyncTask<Void> export(Long orgId, DataFormat format, String fileName, HttpServletResponse response) {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"");
+        return new WebAsyncTask<>(userExportService.getTimeoutMillis(), () -> {
+            userExportService.export(orgId, format, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
 }
@@ -2,6 +2,7 @@ package org.hr.platform.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.ChangePasswordRequest;
+import org.hr.platform.security.CurrentPrincipal;
 import org.hr.platform.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -9,6 +10,8 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/user")
 @RequiredArgsConstructor
@@ -18,17 +21,23 @@ public class UserController {
 
     @GetMapping("/me")
     @PreAuthorize("hasAnyAuthority('EMPLOYEE', 'MANAGER', 'ADMIN')")
-    public ResponseEntity<?> getProfile(@AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(userService.getProfile(userDetails.getUsername()));
+    public ResponseEntity<?> getProfile(CurrentPrincipal principal) {
+        return ResponseEntity.ok(userService.getProfile(principal));
     }
 
     @PostMapping("/change-password")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<String> changePassword(
+    public CompletableFuture<ResponseEntity<String>> changePassword(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestBody ChangePasswordRequest request
     ) {
-        userService.changePassword(userDetails.getUsername(), request);
-        return ResponseEntity.ok("Password changed successfully");
+        return userService.changePasswordAsync(userDetails.getUsername(), request)
+                .thenApply(done -> ResponseEntity.ok("Password changed successfully"));
+    }
+
+    @GetMapping("/sessions")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getActiveSessions(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(userService.getActiveSessions(userDetails.getUsername()));
     }
 }
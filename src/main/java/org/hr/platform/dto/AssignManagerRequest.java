@@ -0,0 +1,9 @@
+package org.hr.platform.dto;
+
+import lombok.Data;
+
+@Data
+public class AssignManagerRequest {
+    // Null detaches the user (and everyone reporting to them) from their current manager
+    private Long managerId;
+}
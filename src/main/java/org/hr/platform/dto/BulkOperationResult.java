@@ -0,0 +1,10 @@
+package org.hr.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BulkOperationResult {
+    private int affected;
+}
@@ -0,0 +1,17 @@
+package org.hr.platform.dto;
+
+import lombok.Data;
+import org.hr.platform.enums.Role;
+
+import java.util.List;
+
+/**
+ * Selects the users a bulk operation applies to: explicit {@code ids}, every user with
+ * {@code filterRole}, or both (ids narrowed by role). {@code role} is the new role for role changes.
+ */
+@Data
+public class BulkUserRequest {
+    private List<Long> ids;
+    private Role filterRole;
+    private Role role;
+}
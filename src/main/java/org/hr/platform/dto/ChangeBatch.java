@@ -0,0 +1,51 @@
+package org.hr.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One batch of the change feed. Pass {@code nextCursor} back as {@code ?since=} to continue;
+ * {@code hasMore} means another batch is already waiting.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeBatch {
+
+    private static final String CURSOR_PREFIX = "chg:";
+
+    private List<ChangeDto> changes;
+    private String nextCursor;
+    private boolean hasMore;
+
+    /**
+     * Position in the feed plus the time it was known to be complete up to, which is what lets
+     * a cursor that predates the retention window be recognised.
+     */
+    public record Cursor(long afterPosition, long asOfMillis) {
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((CURSOR_PREFIX + afterPosition + ":" + asOfMillis).getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                if (!decoded.startsWith(CURSOR_PREFIX)) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                String[] parts = decoded.substring(CURSOR_PREFIX.length()).split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new Cursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
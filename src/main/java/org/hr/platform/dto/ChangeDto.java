@@ -0,0 +1,20 @@
+package org.hr.platform.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.event.DirectoryChangeEvent.Entity;
+
+/**
+ * The latest change to one record. Created and updated records carry their current state;
+ * clients should apply both as upserts, since compaction may fold a creation into a later update.
+ */
+@Builder
+@Getter
+public class ChangeDto {
+    private Entity entity;
+    private Long id;
+    private ChangeType changeType;
+    private UserDto user;
+    private OrganizationDto organization;
+}
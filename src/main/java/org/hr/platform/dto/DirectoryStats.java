@@ -0,0 +1,29 @@
+package org.hr.platform.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.hr.platform.enums.Role;
+
+import java.util.List;
+import java.util.Map;
+
+@Builder
+@Getter
+public class DirectoryStats {
+    private long totalUsers;
+    private long totalOrganizations;
+    // Users who have not yet logged in and replaced their initial password
+    private long firstLoginPending;
+    private Map<Role, Long> usersByRole;
+    private List<OrganizationHeadcount> organizations;
+
+    @Builder
+    @Getter
+    public static class OrganizationHeadcount {
+        private Long id;
+        private String name;
+        private long totalUsers;
+        private long firstLoginPending;
+        private Map<Role, Long> usersByRole;
+    }
+}
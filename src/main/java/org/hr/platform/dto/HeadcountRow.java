@@ -0,0 +1,9 @@
+package org.hr.platform.dto;
+
+import org.hr.platform.enums.Role;
+
+/**
+ * One {@code GROUP BY organization, role} bucket of the user table.
+ */
+public record HeadcountRow(Long organizationId, String organizationName, Role role, Long users, Long firstLoginPending) {
+}
@@ -0,0 +1,19 @@
+package org.hr.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ImportResult {
+    private long imported;
+    private long failed;
+    private List<RowError> errors;
+    // True when more rows failed than are listed in errors
+    private boolean errorsTruncated;
+
+    public record RowError(long line, String email, String message) {
+    }
+}
@@ -0,0 +1,19 @@
+package org.hr.platform.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Builder
+@Getter
+public class OrganizationDeletionJobDto {
+    private String id;
+    private Long organizationId;
+    private String status;
+    private long usersTotal;
+    private long usersDeleted;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,25 @@
+package org.hr.platform.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.hr.platform.enums.OrganizationStatus;
+import org.hr.platform.model.Organization;
+
+@Builder
+@Getter
+public class OrganizationDto {
+    private Long id;
+    private String name;
+    private String description;
+    private OrganizationStatus status;
+
+    public static OrganizationDto from(Organization organization) {
+        return OrganizationDto.builder()
+                .id(organization.getId())
+                .name(organization.getName())
+                .description(organization.getDescription())
+                // Null on rows created before the column existed; those are active
+                .status(organization.getStatus() != null ? organization.getStatus() : OrganizationStatus.ACTIVE)
+                .build();
+    }
+}
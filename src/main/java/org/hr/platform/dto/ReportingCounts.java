@@ -0,0 +1,7 @@
+package org.hr.platform.dto;
+
+/**
+ * Headcount under a manager: direct reports, and everyone in their reporting line at any depth.
+ */
+public record ReportingCounts(Long directReports, Long totalReports) {
+}
@@ -0,0 +1,23 @@
+package org.hr.platform.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.hr.platform.security.SessionRegistry;
+
+import java.time.Instant;
+
+@Builder
+@Getter
+public class SessionDto {
+    private String id;
+    private Instant createdAt;
+    private Instant expiresAt;
+
+    public static SessionDto from(SessionRegistry.Session session) {
+        return SessionDto.builder()
+                .id(session.id())
+                .createdAt(Instant.ofEpochMilli(session.createdAtMillis()))
+                .expiresAt(Instant.ofEpochMilli(session.expiresAtMillis()))
+                .build();
+    }
+}
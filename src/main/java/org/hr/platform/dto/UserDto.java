@@ -38,4 +38,33 @@ public class UserDto {
                 .organization(OrganizationDto.from(user.getOrganization()))
                 .build();
     }
+
+    /**
+     * Maps a user whose organization comes from the catalog, so the lazy association is never loaded.
+     */
+    public static UserDto from(User user, org.hr.platform.dto.OrganizationDto organization) {
+        return UserDto.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .firstLogin(user.isFirstLogin())
+                .organization(OrganizationDto.builder()
+                        .id(organization.getId())
+                        .name(organization.getName())
+                        .build())
+                .build();
+    }
+
+    public static UserDto from(UserSummary summary) {
+        return UserDto.builder()
+                .id(summary.id())
+                .email(summary.email())
+                .role(summary.role())
+                .firstLogin(summary.firstLogin())
+                .organization(summary.organizationId() == null ? null : OrganizationDto.builder()
+                        .id(summary.organizationId())
+                        .name(summary.organizationName())
+                        .build())
+                .build();
+    }
 }
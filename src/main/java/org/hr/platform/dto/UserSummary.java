@@ -0,0 +1,15 @@
+package org.hr.platform.dto;
+
+import org.hr.platform.enums.Role;
+
+/**
+ * Flat read projection of a user and its organization, selected in a single join so listings
+ * never touch the lazy {@code User.organization} association.
+ */
+public record UserSummary(Long id,
+                          String email,
+                          Role role,
+                          boolean firstLogin,
+                          Long organizationId,
+                          String organizationName) {
+}
@@ -0,0 +1,6 @@
+package org.hr.platform.enums;
+
+public enum OrganizationStatus {
+    ACTIVE,
+    DELETING,
+}
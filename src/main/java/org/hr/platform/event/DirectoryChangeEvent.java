@@ -0,0 +1,39 @@
+package org.hr.platform.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by every service that creates, updates or deletes users or organizations.
+ * <p>
+ * Listeners that keep derived state (versions, caches, indexes) should react after commit with
+ * {@code @TransactionalEventListener(fallbackExecution = true)}, so a rolled-back change is never
+ * seen and a change made outside a transaction is still delivered. Publishers do so inside the
+ * transaction that made the change, which is what lets {@link org.hr.platform.service.ChangeFeedService}
+ * log it atomically. An empty {@code ids} list means the affected rows are not known individually.
+ */
+public record DirectoryChangeEvent(Entity entity, ChangeType changeType, Long organizationId, List<Long> ids) {
+
+    public enum Entity {
+        USER,
+        ORGANIZATION
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static DirectoryChangeEvent user(ChangeType changeType, Long organizationId, Long userId) {
+        return new DirectoryChangeEvent(Entity.USER, changeType, organizationId, userId != null ? List.of(userId) : List.of());
+    }
+
+    public static DirectoryChangeEvent users(ChangeType changeType, Long organizationId, Collection<Long> userIds) {
+        return new DirectoryChangeEvent(Entity.USER, changeType, organizationId, List.copyOf(userIds));
+    }
+
+    public static DirectoryChangeEvent organization(ChangeType changeType, Long organizationId) {
+        return new DirectoryChangeEvent(Entity.ORGANIZATION, changeType, organizationId, List.of(organizationId));
+    }
+}
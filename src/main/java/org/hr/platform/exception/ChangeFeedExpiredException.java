@@ -0,0 +1,12 @@
+package org.hr.platform.exception;
+
+/**
+ * Thrown when a change feed cursor is older than the retained log (HTTP 410); the client has to
+ * reload the full listing and start again from a fresh cursor.
+ */
+public class ChangeFeedExpiredException extends RuntimeException {
+
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package org.hr.platform.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a caller exceeds a request rate limit (HTTP 429).
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
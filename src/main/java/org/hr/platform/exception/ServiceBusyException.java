@@ -0,0 +1,17 @@
+package org.hr.platform.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource is saturated and the caller should retry later (HTTP 503).
+ */
+@Getter
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
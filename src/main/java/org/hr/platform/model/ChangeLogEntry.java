@@ -0,0 +1,59 @@
+package org.hr.platform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.event.DirectoryChangeEvent.Entity;
+
+import java.time.Instant;
+
+/**
+ * Append-only record of a user or organization change, written in the same transaction as the
+ * change itself. Ids follow insertion order, not commit order, so an entry only joins the feed once
+ * {@link org.hr.platform.service.ChangeFeedService} has given it a {@code position} after commit;
+ * positions are handed out one committed batch at a time and are what cursors point into.
+ */
+@jakarta.persistence.Entity
+@Table(name = "change_log", indexes = {
+        // Tenant-scoped feed reads seek on (organization, position)
+        @Index(name = "idx_change_log_org_position", columnList = "organization_id, position"),
+        @Index(name = "idx_change_log_position", columnList = "position", unique = true),
+        // Compaction: newer entries for the same record, and the retention cutoff
+        @Index(name = "idx_change_log_entity", columnList = "entity_id, entity, position"),
+        @Index(name = "idx_change_log_changed_at", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Null until the entry has committed and been sequenced
+    @Column(name = "position")
+    private Long position;
+
+    @Column(name = "organization_id")
+    private Long organizationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Entity entity;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ChangeType changeType;
+
+    // When the entry was sequenced, which is what retention and cursor expiry measure against
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
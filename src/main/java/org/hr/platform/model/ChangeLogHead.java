@@ -0,0 +1,26 @@
+package org.hr.platform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row holding the last position handed out in the change feed. Sequencing locks it, so
+ * instances take turns and each batch of positions commits after every lower one.
+ */
+@Entity
+@Table(name = "change_log_head")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogHead {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long position;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hr.platform.enums.OrganizationStatus;
 
 @Entity
 @Table(name = "organizations")
@@ -23,4 +24,14 @@ public class Organization {
 
     @Column(length = 500)
     private String description;
+
+    // Null on rows created before the column existed; those are active
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    @Builder.Default
+    private OrganizationStatus status = OrganizationStatus.ACTIVE;
+
+    public boolean isDeleting() {
+        return status == OrganizationStatus.DELETING;
+    }
 }
@@ -0,0 +1,65 @@
+package org.hr.platform.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * Closure table of the reporting hierarchy: one row for every (manager, report) pair at any
+ * distance, {@code depth} 1 being a direct report. Users outside any reporting line have no rows.
+ * <p>
+ * The primary key serves "everyone under X" as a single range scan; the descendant index serves
+ * "everyone above X". Rows are maintained by {@link org.hr.platform.service.ReportingLineService}
+ * and by {@link org.hr.platform.repository.UserRepository#deleteByIds}.
+ */
+@Entity
+@Table(name = "reporting_line", indexes = {
+        @Index(name = "idx_reporting_line_descendant", columnList = "descendant_id, ancestor_id")
+})
+@IdClass(ReportingLine.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportingLine {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    // Foreign keys only; rows are always read and written by id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ancestor_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User ancestor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descendant_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User descendant;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -2,6 +2,11 @@ package org.hr.platform.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.ParamDef;
 import org.hr.platform.enums.Role;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,13 +15,26 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Keyset pagination: every listing seeks on id, optionally within an organization and/or role
+        @Index(name = "idx_users_org_id", columnList = "organization_id, id"),
+        @Index(name = "idx_users_org_role_id", columnList = "organization_id, role, id"),
+        @Index(name = "idx_users_role_id", columnList = "role, id"),
+        // Direct reports: seek on manager, ordered by id
+        @Index(name = "idx_users_manager_id", columnList = "manager_id, id")
+})
+// Limits reads to one organization when enabled (see TenantFilterInterceptor)
+@FilterDef(name = User.TENANT_FILTER, parameters = @ParamDef(name = User.TENANT_PARAMETER, type = Long.class))
+@Filter(name = User.TENANT_FILTER, condition = "organization_id = :" + User.TENANT_PARAMETER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class User {
 
+    public static final String TENANT_FILTER = "tenantFilter";
+    public static final String TENANT_PARAMETER = "organizationId";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -38,4 +56,12 @@ public class User {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organization_id", nullable = false)
     private Organization organization;
+
+    // Direct manager; the full reporting line lives in ReportingLine. Changed only through ReportingLineService.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "manager_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User manager;
 }
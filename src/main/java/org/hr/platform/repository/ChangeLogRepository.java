@@ -0,0 +1,41 @@
+package org.hr.platform.repository;
+
+import org.hr.platform.model.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    // Feed reads: entries without a position have not been sequenced yet and are left for the next read
+    @Query("SELECT c FROM ChangeLogEntry c WHERE c.organizationId = :organizationId AND c.position > :afterPosition "
+            + "ORDER BY c.position")
+    List<ChangeLogEntry> findSequencedAfter(Long organizationId, Long afterPosition, Limit limit);
+
+    @Query("SELECT c FROM ChangeLogEntry c WHERE c.position > :afterPosition ORDER BY c.position")
+    List<ChangeLogEntry> findAllSequencedAfter(Long afterPosition, Limit limit);
+
+    @Query("SELECT MAX(c.position) FROM ChangeLogEntry c WHERE c.changedAt <= :before")
+    Long findMaxPositionChangedBefore(Instant before);
+
+    @Query("SELECT MAX(c.position) FROM ChangeLogEntry c")
+    Long findMaxPosition();
+
+    @Query("SELECT MIN(c.position) FROM ChangeLogEntry c")
+    Long findMinPosition();
+
+    // Compaction, one position range per statement
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.position > :fromPosition AND c.position <= :toPosition")
+    int deleteRange(Long fromPosition, Long toPosition);
+
+    // An entry is superseded once a newer one exists for the same record; readers only ever need the latest
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.position > :fromPosition AND c.position <= :toPosition AND EXISTS ("
+            + "SELECT 1 FROM ChangeLogEntry n WHERE n.entityId = c.entityId AND n.entity = c.entity AND n.position > c.position)")
+    int deleteSupersededInRange(Long fromPosition, Long toPosition);
+}
@@ -1,11 +1,26 @@
 package org.hr.platform.repository;
 
+import jakarta.persistence.LockModeType;
+import org.hr.platform.enums.OrganizationStatus;
 import org.hr.platform.model.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface OrganizationRepository extends JpaRepository<Organization, Long> {
     Optional<Organization> findByName(String organizationName);
     boolean existsByName(String name);
+    List<Organization> findByStatus(OrganizationStatus status);
+
+    // SELECT ... FOR UPDATE: serializes changes to the organization's reporting hierarchy
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Organization> findWithLockById(Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Organization o SET o.status = :status WHERE o.id = :id")
+    int updateStatus(Long id, OrganizationStatus status);
 }
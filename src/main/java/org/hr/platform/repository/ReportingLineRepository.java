@@ -0,0 +1,37 @@
+package org.hr.platform.repository;
+
+import org.hr.platform.dto.ReportingCounts;
+import org.hr.platform.model.ReportingLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ReportingLineRepository extends JpaRepository<ReportingLine, ReportingLine.Key> {
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    // One range scan of the primary key
+    @Query("SELECT new org.hr.platform.dto.ReportingCounts(COALESCE(SUM(CASE WHEN r.depth = 1 THEN 1 ELSE 0 END), 0), COUNT(r)) "
+            + "FROM ReportingLine r WHERE r.ancestorId = :managerId")
+    ReportingCounts countReports(Long managerId);
+
+    // Moving a subtree is these two statements whatever its size: cut every link from the user and
+    // their reports to the user's current managers, then link them to the new manager and everyone above
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM reporting_line "
+            + "WHERE ancestor_id IN (SELECT up.ancestor_id FROM reporting_line up WHERE up.descendant_id = :userId) "
+            + "AND (descendant_id = :userId "
+            + "OR descendant_id IN (SELECT down.descendant_id FROM reporting_line down WHERE down.ancestor_id = :userId))",
+            nativeQuery = true)
+    int detachSubtree(Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO reporting_line (ancestor_id, descendant_id, depth) "
+            + "SELECT up.ancestor_id, down.descendant_id, up.depth + down.depth + 1 "
+            + "FROM reporting_line up JOIN reporting_line down ON down.ancestor_id = :userId WHERE up.descendant_id = :managerId "
+            + "UNION ALL SELECT up.ancestor_id, CAST(:userId AS BIGINT), up.depth + 1 FROM reporting_line up WHERE up.descendant_id = :managerId "
+            + "UNION ALL SELECT CAST(:managerId AS BIGINT), down.descendant_id, down.depth + 1 FROM reporting_line down WHERE down.ancestor_id = :userId "
+            + "UNION ALL SELECT CAST(:managerId AS BIGINT), CAST(:userId AS BIGINT), 1",
+            nativeQuery = true)
+    int attachSubtree(Long userId, Long managerId);
+}
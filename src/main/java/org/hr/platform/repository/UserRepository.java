@@ -1,14 +1,147 @@
 package org.hr.platform.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hr.platform.dto.HeadcountRow;
+import org.hr.platform.dto.UserSummary;
 import org.hr.platform.enums.Role;
 import org.hr.platform.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u FROM User u JOIN FETCH u.organization WHERE u.email = :email")
+    Optional<User> findByEmailWithOrganization(String email);
+
     List<User> findByOrganizationId(Long organizationId);
     List<User> findByOrganizationIdAndRole(Long organizationId, Role role);
+    long countByOrganizationId(Long organizationId);
+
+    // Emails are unique across tenants, so this check is native to stay outside the tenant filter
+    @Query(value = "SELECT email FROM users WHERE email IN (:emails)", nativeQuery = true)
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    @Query(value = "SELECT id FROM users WHERE email IN (:emails)", nativeQuery = true)
+    List<Long> findIdsByEmails(Collection<String> emails);
+
+    // Dashboard aggregates: one row per (organization, role), served from the (organization_id, role, id) index
+    String HEADCOUNT_SELECT = "SELECT new org.hr.platform.dto.HeadcountRow(o.id, o.name, u.role, COUNT(u), "
+            + "SUM(CASE WHEN u.firstLogin = true THEN 1 ELSE 0 END)) FROM User u JOIN u.organization o ";
+
+    @Query(HEADCOUNT_SELECT + "GROUP BY o.id, o.name, u.role ORDER BY o.id")
+    List<HeadcountRow> countByOrganizationAndRole();
+
+    @Query(HEADCOUNT_SELECT + "WHERE o.id = :organizationId GROUP BY o.id, o.name, u.role")
+    List<HeadcountRow> countByOrganizationAndRole(Long organizationId);
+
+    // Tenant-scoped access: a user of another organization is simply not found / not affected
+    Optional<User> findByIdAndOrganizationId(Long id, Long organizationId);
+
+    @Query("SELECT u.email FROM User u WHERE u.id = :id AND u.organization.id = :organizationId")
+    Optional<String> findEmailByIdAndOrganizationId(Long id, Long organizationId);
+
+    // Read-only listings: one join query per call, no entity or lazy organization loads
+    String SUMMARY_SELECT = "SELECT new org.hr.platform.dto.UserSummary(u.id, u.email, u.role, u.firstLogin, o.id, o.name) "
+            + "FROM User u JOIN u.organization o ";
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :id")
+    Optional<UserSummary> findSummaryById(Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId ORDER BY u.id")
+    List<UserSummary> findSummariesByOrganizationId(Long organizationId);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId ORDER BY u.id")
+    List<UserSummary> findSummariesByOrganizationId(Long organizationId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId AND u.role = :role ORDER BY u.id")
+    List<UserSummary> findSummariesByOrganizationIdAndRole(Long organizationId, Role role);
+
+    @Query(SUMMARY_SELECT + "WHERE u.id IN :ids ORDER BY u.id")
+    List<UserSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId AND u.id IN :ids ORDER BY u.id")
+    List<UserSummary> findSummariesByOrganizationIdAndIdIn(Long organizationId, Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId AND u.role = :role AND u.id IN :ids ORDER BY u.id")
+    List<UserSummary> findSummariesByOrganizationIdAndRoleAndIdIn(Long organizationId, Role role, Collection<Long> ids);
+
+    // Bulk statements: always scoped by organization as well as by id
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.role = :role WHERE u.id IN :ids AND u.organization.id = :organizationId")
+    int updateRoleByIds(Long organizationId, Collection<Long> ids, Role role);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.firstLogin = true WHERE u.id IN :ids AND u.organization.id = :organizationId")
+    int markFirstLoginByIds(Long organizationId, Collection<Long> ids);
+
+    /**
+     * Deletes the users and takes them out of the reporting hierarchy: their reports lose their
+     * manager, and links that ran through them are cut, so each former report heads its own subtree.
+     */
+    default int deleteByIds(Long organizationId, Collection<Long> ids) {
+        deleteReportingLinesOf(organizationId, ids);
+        clearManagerByIds(organizationId, ids);
+        return deleteRowsByIds(organizationId, ids);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id IN :ids AND u.organization.id = :organizationId")
+    int deleteRowsByIds(Long organizationId, Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.manager = null WHERE u.manager.id IN :ids AND u.organization.id = :organizationId")
+    int clearManagerByIds(Long organizationId, Collection<Long> ids);
+
+    // Reporting-line rows are only ever within one organization, so scoping the ids scopes the rows
+    String ORGANIZATION_IDS = "(SELECT id FROM users WHERE id IN (:ids) AND organization_id = :organizationId)";
+
+    // Rows to or from the users, plus (manager, report) links whose path passes through one of them
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM reporting_line WHERE ancestor_id IN " + ORGANIZATION_IDS
+            + " OR descendant_id IN " + ORGANIZATION_IDS
+            + " OR (ancestor_id, descendant_id) IN (SELECT up.ancestor_id, down.descendant_id FROM reporting_line up "
+            + "JOIN reporting_line down ON down.ancestor_id = up.descendant_id WHERE up.descendant_id IN " + ORGANIZATION_IDS + ")",
+            nativeQuery = true)
+    int deleteReportingLinesOf(Long organizationId, Collection<Long> ids);
+
+    // Reporting lines: direct reports seek on (manager_id, id); the whole subtree is one range of the closure table's key
+    @Query(SUMMARY_SELECT + "WHERE u.manager.id = :managerId AND o.id = :organizationId AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findDirectReportsAfter(Long organizationId, Long managerId, Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "JOIN ReportingLine r ON r.descendantId = u.id "
+            + "WHERE r.ancestorId = :managerId AND o.id = :organizationId AND r.descendantId > :afterId ORDER BY r.descendantId")
+    List<UserSummary> findReportingLineAfter(Long organizationId, Long managerId, Long afterId, Limit limit);
+
+    // Exports: must be consumed inside a transaction and closed; rows are pulled from a cursor in fetch-size batches
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SUMMARY_SELECT + "ORDER BY u.id")
+    Stream<UserSummary> streamAllSummaries();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId ORDER BY u.id")
+    Stream<UserSummary> streamSummariesByOrganizationId(Long organizationId);
+
+    // Keyset pagination: seek past the last id seen instead of using OFFSET
+    @Query(SUMMARY_SELECT + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesAfter(Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE u.role = :role AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesByRoleAfter(Role role, Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesByOrganizationIdAfter(Long organizationId, Long afterId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.id = :organizationId AND u.role = :role AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesByOrganizationIdAndRoleAfter(Long organizationId, Role role, Long afterId, Limit limit);
 }
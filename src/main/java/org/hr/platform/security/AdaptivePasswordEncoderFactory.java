@@ -0,0 +1,79 @@
+package org.hr.platform.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the application's versioned password encoder.
+ * <p>
+ * New hashes are written as {@code {id}hash} with the configured algorithm and cost. Older
+ * hashes, including the unprefixed BCrypt ones stored before this scheme, still verify and are
+ * reported as needing an upgrade, so they get re-hashed on the user's next successful login.
+ */
+@Slf4j
+public class AdaptivePasswordEncoderFactory {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+
+    static final int MIN_BCRYPT_STRENGTH = 10;
+    static final int MAX_BCRYPT_STRENGTH = 16;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    public static PasswordEncoder create(String algorithm, int bcryptStrength, boolean calibrate, long targetMillis) {
+        int strength = calibrate ? calibrateBcryptStrength(targetMillis) : bcryptStrength;
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(strength));
+        encoders.put(PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes written before the {id} prefix was introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        log.info("Password hashing: algorithm={}, bcrypt strength={}", algorithm, strength);
+        return encoder;
+    }
+
+    /**
+     * Picks the highest BCrypt strength whose verification stays within the target time on this CPU.
+     */
+    static int calibrateBcryptStrength(long targetMillis) {
+        int chosen = MIN_BCRYPT_STRENGTH;
+        for (int strength = MIN_BCRYPT_STRENGTH; strength <= MAX_BCRYPT_STRENGTH; strength++) {
+            long millis = measureVerifyMillis(strength);
+            log.info("Password hashing calibration: bcrypt strength {} verifies in {} ms", strength, millis);
+            if (millis > targetMillis) {
+                break;
+            }
+            chosen = strength;
+        }
+        return chosen;
+    }
+
+    private static long measureVerifyMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(CALIBRATION_PASSWORD);
+
+        // First run warms up the JIT; take the faster of two timed runs to filter out scheduling noise
+        encoder.matches(CALIBRATION_PASSWORD, hash);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.matches(CALIBRATION_PASSWORD, hash);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,66 @@
+package org.hr.platform.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built straight from verified JWT claims, so authenticated requests
+ * don't need a database lookup to know who the caller is.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    private final String email;
+    private final Long userId;
+    private final Long organizationId;
+    private final String role;
+    private final String userType;
+    private final long sessionGeneration;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(String email, Long userId, Long organizationId, String role, String userType,
+                             long sessionGeneration) {
+        this.email = email;
+        this.userId = userId;
+        this.organizationId = organizationId;
+        this.role = role;
+        this.userType = userType;
+        this.sessionGeneration = sessionGeneration;
+        this.authorities = List.of(new SimpleGrantedAuthority(role));
+    }
+
+    public static AuthenticatedUser from(JwtClaims claims) {
+        return new AuthenticatedUser(
+                claims.getSubject(),
+                claims.getUserId(),
+                claims.getOrganizationId(),
+                claims.getRole(),
+                claims.getUserType(),
+                claims.getGeneration()
+        );
+    }
+
+    public boolean isSuperAdmin() {
+        return "SUPERADMIN".equals(userType);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
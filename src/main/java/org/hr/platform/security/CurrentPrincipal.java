@@ -0,0 +1,18 @@
+package org.hr.platform.security;
+
+/**
+ * The caller of the current request as carried by its verified access token. Declare it as a
+ * controller method parameter to receive it; it is resolved once per request and never touches
+ * the database. For superadmins {@code userId} is the superadmin id and {@code organizationId} is null.
+ */
+public record CurrentPrincipal(Long userId, Long organizationId, String email, String role, String userType) {
+
+    public static CurrentPrincipal from(AuthenticatedUser user) {
+        return new CurrentPrincipal(user.getUserId(), user.getOrganizationId(), user.getEmail(),
+                user.getRole(), user.getUserType());
+    }
+
+    public boolean isSuperAdmin() {
+        return "SUPERADMIN".equals(userType);
+    }
+}
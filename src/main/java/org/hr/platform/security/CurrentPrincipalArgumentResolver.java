@@ -0,0 +1,42 @@
+package org.hr.platform.security;
+
+import org.hr.platform.util.SecurityUtil;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Supplies {@link CurrentPrincipal} controller arguments from the security context, caching it
+ * on the request so it is built at most once.
+ */
+@Component
+public class CurrentPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String ATTRIBUTE = CurrentPrincipal.class.getName();
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return CurrentPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object cached = webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) {
+            return cached;
+        }
+        AuthenticatedUser user = SecurityUtil.getCurrentPrincipal();
+        if (user == null) {
+            throw new AuthenticationCredentialsNotFoundException("Not authenticated");
+        }
+        CurrentPrincipal principal = CurrentPrincipal.from(user);
+        webRequest.setAttribute(ATTRIBUTE, principal, RequestAttributes.SCOPE_REQUEST);
+        return principal;
+    }
+}
@@ -6,13 +6,14 @@ import org.hr.platform.model.User;
 import org.hr.platform.repository.SuperAdminRepository;
 import org.hr.platform.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final SuperAdminRepository superAdminRepository;
@@ -28,13 +29,34 @@ public class CustomUserDetailsService implements UserDetailsService {
                         .build())
                 .orElseGet(() ->
                     // If not SuperAdmin, try regular user
-                    userRepository.findByEmail(email)
+                    userRepository.findByEmailWithOrganization(email)
                             .map(user -> org.springframework.security.core.userdetails.User
                                     .withUsername(user.getEmail())
                                     .password(user.getPassword())
                                     .authorities(user.getRole().name())
+                                    // Rejected before the password is even hashed while the organization is being deleted
+                                    .disabled(user.getOrganization().isDeleting())
                                     .build())
                             .orElseThrow(() -> new UsernameNotFoundException("User not found"))
                 );
     }
+
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        String email = userDetails.getUsername();
+        superAdminRepository.findByEmail(email).ifPresentOrElse(
+                superAdmin -> {
+                    superAdmin.setPassword(newPassword);
+                    superAdminRepository.save(superAdmin);
+                },
+                () -> userRepository.findByEmail(email).ifPresent(user -> {
+                    user.setPassword(newPassword);
+                    userRepository.save(user);
+                })
+        );
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
 }
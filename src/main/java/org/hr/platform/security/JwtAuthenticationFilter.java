@@ -1,14 +1,19 @@
 package org.hr.platform.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.hr.platform.service.JwtService;
+import org.hr.platform.service.RefreshTokenService;
+import org.hr.platform.store.ExpiringTokenStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -16,11 +21,40 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final CustomUserDetailsService customUserDetailsService; // Changed from UserDetailsServiceImpl
+    private final CustomUserDetailsService customUserDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SessionRegistry sessionRegistry;
+
+    // When true the principal is built from verified claims alone; otherwise every request hits the database
+    private final boolean stateless;
+
+    // In stateless mode, re-check the account against the database at most once per this many seconds (0 = never)
+    private final long revalidateAfterMillis;
+
+    // Accounts checked within the window; entries expire with it, and the soonest-expiring go first at the cap
+    private final ExpiringTokenStore<Boolean> recentlyRevalidated;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   CustomUserDetailsService customUserDetailsService,
+                                   RefreshTokenService refreshTokenService,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   SessionRegistry sessionRegistry,
+                                   @Value("${jwt.stateless:true}") boolean stateless,
+                                   @Value("${jwt.revalidate-after-seconds:0}") long revalidateAfterSeconds,
+                                   @Value("${jwt.revalidate-max-accounts:100000}") int revalidateMaxAccounts) {
+        this.jwtService = jwtService;
+        this.customUserDetailsService = customUserDetailsService;
+        this.refreshTokenService = refreshTokenService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.sessionRegistry = sessionRegistry;
+        this.stateless = stateless;
+        this.revalidateAfterMillis = revalidateAfterSeconds * 1000;
+        this.recentlyRevalidated = new ExpiringTokenStore<>(Math.max(1000, revalidateAfterMillis), revalidateMaxAccounts);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,19 +63,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            email = jwtService.extractEmail(token);
-        }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(email); // Now uses CustomUserDetailsService
-            if (jwtService.validateToken(token)) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = authenticate(authHeader.substring(7));
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
+                        principal, null, principal.getAuthorities()
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -50,4 +78,75 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser authenticate(String token) {
+        AuthenticatedUser cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            // A logout on any node must still take effect, so a cached verification never skips the revocation check
+            if (refreshTokenService.isTokenBlacklisted(token)) {
+                verifiedTokenCache.invalidate(token);
+                return null;
+            }
+            return isStillValid(cached) ? cached : null;
+        }
+
+        JwtClaims claims;
+        try {
+            claims = jwtService.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        if (claims.getSubject() == null || claims.getRole() == null
+                || refreshTokenService.isTokenBlacklisted(token)) {
+            return null;
+        }
+        AuthenticatedUser principal = AuthenticatedUser.from(claims);
+        if (!isStillValid(principal)) {
+            return null;
+        }
+        verifiedTokenCache.put(token, principal, claims.getExpiresAt());
+        return principal;
+    }
+
+    private boolean isStillValid(AuthenticatedUser principal) {
+        // Tokens issued before the account's sessions were revoked no longer authenticate
+        if (sessionRegistry.isRevoked(principal.getEmail(), principal.getSessionGeneration())) {
+            return false;
+        }
+
+        if (stateless && revalidateAfterMillis <= 0) {
+            return true;
+        }
+
+        if (stateless && recentlyRevalidated.containsKey(principal.getEmail())) {
+            return true;
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = customUserDetailsService.loadUserByUsername(principal.getEmail());
+        } catch (UsernameNotFoundException e) {
+            recentlyRevalidated.remove(principal.getEmail());
+            return false;
+        }
+
+        // A role change since the token was issued forces the client through /auth/refresh
+        boolean sameRole = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> principal.getRole().equals(authority.getAuthority()));
+        if (!sameRole || !userDetails.isEnabled()) {
+            recentlyRevalidated.remove(principal.getEmail());
+            return false;
+        }
+
+        if (stateless) {
+            recentlyRevalidated.put(principal.getEmail(), Boolean.TRUE, System.currentTimeMillis() + revalidateAfterMillis);
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.token-store.sweep-interval-ms:60000}")
+    public void purgeExpired() {
+        recentlyRevalidated.purgeExpired();
+    }
 }
@@ -0,0 +1,26 @@
+package org.hr.platform.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified access token's claims.
+ */
+@Value
+@Builder
+public class JwtClaims {
+    String subject;
+    String userType;
+    String role;
+    Long userId;
+    Long organizationId;
+    boolean firstLogin;
+    long generation;
+    Instant expiresAt;
+
+    public boolean isSuperAdmin() {
+        return "SUPERADMIN".equals(userType);
+    }
+}
@@ -0,0 +1,144 @@
+package org.hr.platform.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hr.platform.exception.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process limiter for /auth/login with one token bucket per client IP and one per email.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (GCRA), so
+ * acquiring is one lock-free compare-and-set. A bucket whose arrival time has passed is
+ * indistinguishable from a fresh one, which is what lets idle entries be swept safely. Once
+ * a dimension holds {@code max-keys} buckets, keys it isn't already tracking pass that dimension
+ * unchecked until the next sweep frees room, so memory stays bounded under a spray of random
+ * emails or addresses without locking legitimate users out; the other dimension still applies.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final int maxKeys;
+    private final Dimension byIp;
+    private final Dimension byEmail;
+
+    private final Counter allowed;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByEmail;
+    private final Counter untrackedByIp;
+    private final Counter untrackedByEmail;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys,
+                            @Value("${auth.rate-limit.ip.per-minute:30}") int ipPerMinute,
+                            @Value("${auth.rate-limit.ip.burst:10}") int ipBurst,
+                            @Value("${auth.rate-limit.email.per-minute:10}") int emailPerMinute,
+                            @Value("${auth.rate-limit.email.burst:5}") int emailBurst) {
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+        this.untrackedByIp = meterRegistry.counter("auth.rate-limit.untracked", "key", "ip");
+        this.untrackedByEmail = meterRegistry.counter("auth.rate-limit.untracked", "key", "email");
+        this.byIp = new Dimension(ipPerMinute, ipBurst, untrackedByIp);
+        this.byEmail = new Dimension(emailPerMinute, emailBurst, untrackedByEmail);
+
+        this.allowed = meterRegistry.counter("auth.rate-limit.allowed");
+        this.rejectedByIp = meterRegistry.counter("auth.rate-limit.rejected", "key", "ip");
+        this.rejectedByEmail = meterRegistry.counter("auth.rate-limit.rejected", "key", "email");
+        Gauge.builder("auth.rate-limit.keys", this, limiter -> limiter.byIp.buckets.size() + limiter.byEmail.buckets.size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consumes one login attempt for the address and the email, or throws
+     * {@link RateLimitExceededException} without doing any further work.
+     */
+    public void checkLoginAttempt(String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        long ipWait = byIp.tryAcquire(clientIp != null ? clientIp : "unknown", now);
+        if (ipWait > 0) {
+            rejectedByIp.increment();
+            throw rejection(ipWait);
+        }
+
+        if (email != null) {
+            long emailWait = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+            if (emailWait > 0) {
+                rejectedByEmail.increment();
+                throw rejection(emailWait);
+            }
+        }
+        allowed.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        byIp.evictIdle(now);
+        byEmail.evictIdle(now);
+    }
+
+    private static RateLimitExceededException rejection(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return new RateLimitExceededException("Too many login attempts, please retry later", seconds);
+    }
+
+    private class Dimension {
+        // Time between tokens, and how far ahead of now the arrival time may run (the burst)
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final Counter untracked;
+
+        Dimension(int perMinute, int burst, Counter untracked) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burstNanos = intervalNanos * Math.max(1, burst);
+            this.untracked = untracked;
+        }
+
+        /**
+         * Returns 0 when a token was taken, otherwise how many nanoseconds until one is available.
+         */
+        long tryAcquire(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys) {
+                    // A shared bucket here would let a key spray lock every new user out; fail open instead
+                    untracked.increment();
+                    return 0;
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+
+            while (true) {
+                long tat = bucket.get();
+                long next = (tat - now > 0 ? tat : now) + intervalNanos;
+                long wait = next - now - burstNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        void evictIdle(long now) {
+            buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.hr.platform.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hr.platform.store.RefreshTokenStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-account index of live refresh-token sessions plus the account's token generation.
+ * <p>
+ * Every refresh and access token is stamped with the account's generation when issued.
+ * {@link #revokeAll(String)} just advances the generation, which invalidates every outstanding
+ * token for that account in constant time. The generation is kept by the {@link RefreshTokenStore},
+ * so with the JDBC store a revocation survives restarts and applies on every node; the session
+ * listing itself is local to this node.
+ */
+@Component
+public class SessionRegistry {
+
+    private final Map<String, UserSessions> sessionsByEmail = new ConcurrentHashMap<>();
+    private final RefreshTokenStore refreshTokenStore;
+
+    // How long a revocation must be remembered: no token issued before it can outlive this
+    private final long maxTokenLifetime;
+
+    public SessionRegistry(MeterRegistry meterRegistry,
+                           RefreshTokenStore refreshTokenStore,
+                           @Value("${jwt.refresh-expiration:604800000}") long refreshTokenExpiration,
+                           @Value("${jwt.expiration}") long accessTokenExpiration) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.maxTokenLifetime = Math.max(refreshTokenExpiration, accessTokenExpiration);
+        Gauge.builder("auth.sessions.accounts", sessionsByEmail, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * The generation to stamp new tokens with, and to check refresh tokens against.
+     */
+    public long currentGeneration(String email) {
+        return refreshTokenStore.currentGeneration(email);
+    }
+
+    /**
+     * Whether a token stamped with this generation predates the account's last revocation. Called for
+     * every authenticated request, so the store may answer from a short-lived local copy.
+     */
+    public boolean isRevoked(String email, long generation) {
+        return generation < refreshTokenStore.recentGeneration(email);
+    }
+
+    public void register(String email, String sessionId, long generation, long createdAtMillis, long expiresAtMillis) {
+        if (isRevoked(email, generation)) {
+            return;
+        }
+        sessionsByEmail.computeIfAbsent(email, e -> new UserSessions())
+                .live.put(sessionId, new Session(sessionId, createdAtMillis, expiresAtMillis));
+    }
+
+    public void unregister(String email, String sessionId) {
+        UserSessions sessions = sessionsByEmail.get(email);
+        if (sessions != null) {
+            sessions.live.remove(sessionId);
+        }
+    }
+
+    /**
+     * Invalidates every refresh and access token issued to the account so far.
+     */
+    public void revokeAll(String email) {
+        if (email == null) {
+            return;
+        }
+        refreshTokenStore.advanceGeneration(email, System.currentTimeMillis() + maxTokenLifetime);
+        UserSessions sessions = sessionsByEmail.get(email);
+        if (sessions != null) {
+            sessions.live = new ConcurrentHashMap<>();
+        }
+    }
+
+    public List<Session> activeSessions(String email) {
+        UserSessions sessions = sessionsByEmail.get(email);
+        if (sessions == null) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        return sessions.live.values().stream()
+                .filter(session -> session.expiresAtMillis() > now)
+                .sorted(Comparator.comparingLong(Session::createdAtMillis).reversed())
+                .toList();
+    }
+
+    /**
+     * Drops expired sessions, and accounts left without any. Generations are purged by the store.
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        sessionsByEmail.forEach((email, sessions) -> {
+            sessions.live.values().removeIf(session -> session.expiresAtMillis() <= now);
+            if (sessions.live.isEmpty()) {
+                sessionsByEmail.remove(email, sessions);
+            }
+        });
+    }
+
+    public record Session(String id, long createdAtMillis, long expiresAtMillis) {
+    }
+
+    private static class UserSessions {
+        private volatile Map<String, Session> live = new ConcurrentHashMap<>();
+    }
+}
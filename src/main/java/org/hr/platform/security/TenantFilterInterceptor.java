@@ -0,0 +1,40 @@
+package org.hr.platform.security;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hr.platform.model.User;
+import org.hr.platform.util.SecurityUtil;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Enables the {@link User#TENANT_FILTER} on the request's persistence context for organization-bound
+ * callers, so every JPQL read of users is limited to the caller's organization. Superadmins are not
+ * filtered. Relies on the open-in-view EntityManager, so it must run after that interceptor.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantFilterInterceptor implements HandlerInterceptor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AuthenticatedUser principal = SecurityUtil.getCurrentPrincipal();
+        if (principal == null || principal.isSuperAdmin() || principal.getOrganizationId() == null) {
+            return true;
+        }
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+        if (holder != null) {
+            holder.getEntityManager().unwrap(Session.class)
+                    .enableFilter(User.TENANT_FILTER)
+                    .setParameter(User.TENANT_PARAMETER, principal.getOrganizationId());
+        }
+        return true;
+    }
+}
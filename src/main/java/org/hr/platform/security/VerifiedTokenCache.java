@@ -0,0 +1,107 @@
+package org.hr.platform.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hr.platform.util.TokenHasher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already-verified access tokens, keyed by a SHA-256 hash of the
+ * token so raw bearer tokens are never kept in memory. Entries expire with the token.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.cache.max-size:10000}") int maxSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.hits = meterRegistry.counter("auth.token.cache.hits");
+        this.misses = meterRegistry.counter("auth.token.cache.misses");
+        this.evictions = meterRegistry.counter("auth.token.cache.evictions");
+        Gauge.builder("auth.token.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached principal for this token, or null when it is absent or expired.
+     */
+    public AuthenticatedUser get(String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        String key = TokenHasher.sha256(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal();
+    }
+
+    public void put(String token, AuthenticatedUser principal, Instant expiresAt) {
+        if (!enabled || expiresAt == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(TokenHasher.sha256(token), new Entry(principal, expiresAt.toEpochMilli()));
+    }
+
+    public void invalidate(String token) {
+        if (enabled) {
+            entries.remove(TokenHasher.sha256(token));
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // Drops expired entries first; if the cache is still full, evicts an arbitrary tenth of it
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        if (entries.size() < maxSize) {
+            return;
+        }
+
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(AuthenticatedUser principal, long expiresAtMillis) {
+    }
+}
@@ -2,17 +2,21 @@ package org.hr.platform.service;
 
 import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.CreateUserRequest;
+import org.hr.platform.dto.CursorPage;
+import org.hr.platform.dto.OrganizationDto;
 import org.hr.platform.dto.UserDto;
-import org.hr.platform.model.Organization;
+import org.hr.platform.enums.OrganizationStatus;
 import org.hr.platform.enums.Role;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
 import org.hr.platform.model.User;
 import org.hr.platform.repository.OrganizationRepository;
 import org.hr.platform.repository.UserRepository;
-import org.springframework.security.access.AccessDeniedException;
+import org.hr.platform.security.CurrentPrincipal;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-
-import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -21,60 +25,42 @@ public class AdminService {
     private final UserService userService;
     private final UserRepository userRepository;
     private final OrganizationRepository organizationRepository;
+    private final OrganizationCatalog organizationCatalog;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<UserDto> listAllUsersInOrg() {
-        Long orgId = userService.getCurrentUser().getOrganization().getId();
-        return userRepository.findByOrganizationId(orgId)
-                .stream()
-                .map(UserDto::from)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> listAllUsersInOrg(CurrentPrincipal admin, Role role, String cursor, Integer size) {
+        return userService.findUsersPage(admin.organizationId(), role, cursor, size);
     }
 
     // Methods expected by AdminController
-    public void createUserForOrg(String adminEmail, CreateUserRequest request) {
-        User admin = userRepository.findByEmail(adminEmail)
-                .orElseThrow(() -> new RuntimeException("Admin not found"));
-
-        if (admin.getRole() != Role.ADMIN) {
-            throw new AccessDeniedException("Only Admins can create users");
-        }
-
-        User user = User.builder()
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole())
-                .organization(admin.getOrganization())
-                .firstLogin(true)
-                .build();
-
-        userRepository.save(user);
+    public void createUserForOrg(CurrentPrincipal admin, CreateUserRequest request) {
+        createUser(admin, request);
     }
 
-    public UserDto createUser(CreateUserRequest request) {
-        User currentAdmin = userService.getCurrentUser();
-
-        Organization org = currentAdmin.getOrganization();
+    @Transactional
+    public UserDto createUser(CurrentPrincipal admin, CreateUserRequest request) {
+        OrganizationDto org = organizationCatalog.findById(admin.organizationId())
+                .orElseThrow(() -> new RuntimeException("Organization not found"));
+        if (org.getStatus() == OrganizationStatus.DELETING) {
+            throw new RuntimeException("Organization is being deleted");
+        }
 
         User user = User.builder()
                 .email(request.getEmail())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .role(request.getRole())
                 .firstLogin(true)
-                .organization(org)
+                .organization(organizationRepository.getReferenceById(org.getId()))
                 .build();
 
-        return UserDto.from(userRepository.save(user));
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.CREATED, org.getId(), saved.getId()));
+        return UserDto.from(saved, org);
     }
 
-    public void deleteUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!user.getOrganization().getId().equals(userService.getCurrentUser().getOrganization().getId())) {
-            throw new RuntimeException("Unauthorized");
-        }
-
-        userRepository.delete(user);
+    public void deleteUser(CurrentPrincipal admin, Long userId) {
+        userService.deleteUser(admin, userId);
     }
 }
@@ -9,12 +9,15 @@ import org.hr.platform.model.SuperAdmin;
 import org.hr.platform.model.User;
 import org.hr.platform.repository.SuperAdminRepository;
 import org.hr.platform.repository.UserRepository;
+import org.hr.platform.security.PasswordHashingExecutor;
 import org.hr.platform.service.JwtService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -24,6 +27,14 @@ public class AuthService {
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenService refreshTokenService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    /**
+     * Runs {@link #login(AuthRequest)} on the password hashing pool so BCrypt never blocks a request thread.
+     */
+    public CompletableFuture<AuthResponse> loginAsync(AuthRequest request) {
+        return passwordHashingExecutor.submit(() -> login(request));
+    }
 
     public AuthResponse login(AuthRequest request) {
         authenticationManager.authenticate(
@@ -34,7 +45,7 @@ public class AuthService {
         return superAdminRepository.findByEmail(request.getEmail())
                 .map(superAdmin -> {
                     String token = jwtService.generateTokenForSuperAdmin(superAdmin);
-                    String refreshToken = refreshTokenService.generateRefreshToken(superAdmin.getEmail());
+                    String refreshToken = refreshTokenService.generateRefreshToken(superAdmin.getEmail(), "SUPERADMIN");
                     return new AuthResponse(token, refreshToken, superAdmin.isFirstLogin());
                 })
                 .orElseGet(() -> {
@@ -43,38 +54,31 @@ public class AuthService {
                             .orElseThrow(() -> new RuntimeException("User not found"));
 
                     String token = jwtService.generateToken(user);
-                    String refreshToken = refreshTokenService.generateRefreshToken(user.getEmail());
+                    String refreshToken = refreshTokenService.generateRefreshToken(user.getEmail(), "USER");
                     return new AuthResponse(token, refreshToken, user.isFirstLogin());
                 });
     }
 
     public TokenResponse refreshToken(RefreshTokenRequest request) {
-        String refreshToken = request.getRefreshToken();
-
-        if (!refreshTokenService.isValidRefreshToken(refreshToken)) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotateRefreshToken(request.getRefreshToken());
+        if (rotation == null) {
             throw new RuntimeException("Invalid refresh token");
         }
 
-        String email = refreshTokenService.getUserEmailFromRefreshToken(refreshToken);
-
-        // Check if it's a SuperAdmin
-        return superAdminRepository.findByEmail(email)
-                .map(superAdmin -> {
-                    String newAccessToken = jwtService.generateTokenForSuperAdmin(superAdmin);
-                    String newRefreshToken = refreshTokenService.generateRefreshToken(email);
-                    refreshTokenService.invalidateRefreshToken(refreshToken);
-                    return new TokenResponse(newAccessToken, newRefreshToken);
-                })
-                .orElseGet(() -> {
-                    // If not SuperAdmin, check regular user
-                    User user = userRepository.findByEmail(email)
+        try {
+            // The token records which table its owner lives in, so only one lookup is needed
+            String newAccessToken = rotation.isSuperAdmin()
+                    ? superAdminRepository.findByEmail(rotation.email())
+                            .map(jwtService::generateTokenForSuperAdmin)
+                            .orElseThrow(() -> new RuntimeException("User not found"))
+                    : userRepository.findByEmail(rotation.email())
+                            .map(jwtService::generateToken)
                             .orElseThrow(() -> new RuntimeException("User not found"));
-
-                    String newAccessToken = jwtService.generateToken(user);
-                    String newRefreshToken = refreshTokenService.generateRefreshToken(email);
-                    refreshTokenService.invalidateRefreshToken(refreshToken);
-                    return new TokenResponse(newAccessToken, newRefreshToken);
-                });
+            return new TokenResponse(newAccessToken, rotation.refreshToken());
+        } catch (RuntimeException e) {
+            refreshTokenService.invalidateRefreshToken(rotation.refreshToken());
+            throw e;
+        }
     }
 
     // Keep the existing method for backwards compatibility
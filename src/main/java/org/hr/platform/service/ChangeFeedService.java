@@ -0,0 +1,445 @@
+package org.hr.platform.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hr.platform.dto.ChangeBatch;
+import org.hr.platform.dto.ChangeBatch.Cursor;
+import org.hr.platform.dto.ChangeDto;
+import org.hr.platform.dto.OrganizationDto;
+import org.hr.platform.dto.UserDto;
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.event.DirectoryChangeEvent.Entity;
+import org.hr.platform.exception.ChangeFeedExpiredException;
+import org.hr.platform.model.ChangeLogEntry;
+import org.hr.platform.model.ChangeLogHead;
+import org.hr.platform.repository.ChangeLogRepository;
+import org.hr.platform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Cursor-based feed of user and organization changes, so clients can sync deltas instead of
+ * re-reading whole listings.
+ * <p>
+ * Every {@link DirectoryChangeEvent} is appended to {@code change_log} synchronously, inside the
+ * transaction that made the change, so the log commits or rolls back with it. Ids are taken before
+ * commit, so they are not a safe cursor: a transaction that took a lower id could commit after a
+ * reader moved past it. Instead, after every commit (and on a timer, for other instances' commits)
+ * committed entries are given the next feed positions under a lock on {@code change_log_head}, so
+ * a reader that sees a position has already seen every lower one.
+ * <p>
+ * Reads return the latest change per record after the cursor's position, in batches, and can
+ * long-poll: a waiting request is completed as soon as an entry in its organization is sequenced.
+ * Superseded entries are compacted away after {@code compact-after-ms} and everything is dropped
+ * after {@code retention-ms}; a cursor older than that gets 410 Gone.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_log (organization_id, entity, entity_id, change_type, changed_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_HEAD_SQL = "SELECT position FROM change_log_head WHERE id = ?";
+    private static final String INSERT_HEAD_SQL = "INSERT INTO change_log_head (id, position) VALUES (?, 0)";
+    private static final String UPDATE_HEAD_SQL = "UPDATE change_log_head SET position = ? WHERE id = ?";
+    private static final String UNSEQUENCED_SQL = "SELECT id FROM change_log WHERE position IS NULL ORDER BY id LIMIT ?";
+    private static final String SEQUENCE_SQL = "UPDATE change_log SET position = ?, changed_at = ? WHERE id = ?";
+    private static final String ORGANIZATIONS_SEQUENCED_SQL = "SELECT DISTINCT organization_id FROM change_log "
+            + "WHERE position > ? AND position <= ? AND organization_id IS NOT NULL";
+
+    // Allows for a batch whose positions were still committing when a cursor was handed out
+    private static final long EXPIRY_SLACK_MILLIS = 60_000;
+
+    // Waiter key for superadmin feeds spanning every organization
+    private static final long ALL_ORGANIZATIONS = 0L;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final UserRepository userRepository;
+    private final OrganizationCatalog organizationCatalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxWaitSeconds;
+    private final int maxWaiters;
+    private final int sequenceBatchSize;
+    private final long retentionMillis;
+    private final long compactAfterMillis;
+    private final int compactionChunkSize;
+
+    private final Map<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final AtomicBoolean sequencingRequested = new AtomicBoolean();
+    // Highest position whose long-polls have been woken; -1 until the first sequencing run
+    private final AtomicLong wokenUpTo = new AtomicLong(-1);
+    private boolean headCreated;
+    private final AtomicLong compactedUpTo = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter entriesWritten;
+    private final Counter expiredEntries;
+    private final Counter supersededEntries;
+
+    public ChangeFeedService(ChangeLogRepository changeLogRepository,
+                             UserRepository userRepository,
+                             OrganizationCatalog organizationCatalog,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.changes.default-limit:100}") int defaultLimit,
+                             @Value("${app.changes.max-limit:1000}") int maxLimit,
+                             @Value("${app.changes.max-wait-seconds:30}") int maxWaitSeconds,
+                             @Value("${app.changes.max-waiters:1000}") int maxWaiters,
+                             @Value("${app.changes.sequence-batch-size:1000}") int sequenceBatchSize,
+                             @Value("${app.changes.retention-ms:604800000}") long retentionMillis,
+                             @Value("${app.changes.compact-after-ms:3600000}") long compactAfterMillis,
+                             @Value("${app.changes.compaction-chunk-size:10000}") int compactionChunkSize) {
+        this.changeLogRepository = changeLogRepository;
+        this.userRepository = userRepository;
+        this.organizationCatalog = organizationCatalog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxWaitSeconds = maxWaitSeconds;
+        this.maxWaiters = maxWaiters;
+        this.sequenceBatchSize = sequenceBatchSize;
+        this.retentionMillis = retentionMillis;
+        this.compactAfterMillis = compactAfterMillis;
+        this.compactionChunkSize = compactionChunkSize;
+
+        this.entriesWritten = meterRegistry.counter("changes.log.entries");
+        this.expiredEntries = meterRegistry.counter("changes.log.compacted", "reason", "expired");
+        this.supersededEntries = meterRegistry.counter("changes.log.compacted", "reason", "superseded");
+        Gauge.builder("changes.feed.waiters", waiterCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Appends the change to the log in the publisher's transaction; a failure here fails the change.
+     * The entry joins the feed once it has committed and been sequenced.
+     */
+    @EventListener
+    public void record(DirectoryChangeEvent event) {
+        if (event.ids().isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = event.ids().stream()
+                .map(id -> new Object[]{event.organizationId(), event.entity().name(), id, event.changeType().name(), now})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        entriesWritten.increment(rows.size());
+    }
+
+    /**
+     * Changes after {@code since} for one organization, or for all of them when {@code organizationId}
+     * is null. Without a cursor, returns no changes and the cursor of the current end of the feed.
+     */
+    public ChangeBatch changesSince(Long organizationId, String since, Integer limit) {
+        return readTemplate.execute(status -> read(organizationId, since, limit));
+    }
+
+    /**
+     * Like {@link #changesSince}, but when there is nothing new yet the result is held for up to
+     * {@code waitSeconds} and completed as soon as a change arrives.
+     */
+    public DeferredResult<ChangeBatch> poll(Long organizationId, String since, Integer limit, Integer waitSeconds) {
+        long wokenBefore = wokenUpTo.get();
+        ChangeBatch batch = changesSince(organizationId, since, limit);
+        int wait = waitSeconds == null ? 0 : Math.max(0, Math.min(waitSeconds, maxWaitSeconds));
+        if (!batch.getChanges().isEmpty() || since == null || wait == 0 || waiterCount.get() >= maxWaiters) {
+            DeferredResult<ChangeBatch> result = new DeferredResult<>();
+            result.setResult(batch);
+            return result;
+        }
+
+        long key = organizationId == null ? ALL_ORGANIZATIONS : organizationId;
+        // Times out with the empty batch, whose cursor is as good as the one the client sent
+        Waiter waiter = new Waiter(batch.getNextCursor(), limit, new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait), batch));
+        Set<Waiter> organizationWaiters = waiters.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        organizationWaiters.add(waiter);
+        waiterCount.incrementAndGet();
+        waiter.result().onCompletion(() -> {
+            if (organizationWaiters.remove(waiter)) {
+                waiterCount.decrementAndGet();
+            }
+        });
+        // A wakeup that ran between the read above and the registration could not see this waiter
+        if (wokenUpTo.get() != wokenBefore) {
+            scheduler.execute(() -> wake(key));
+        }
+        return waiter.result();
+    }
+
+    /**
+     * Sequences the change once it has committed, which is also what wakes the long-polls waiting for it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDirectoryChange(DirectoryChangeEvent event) {
+        requestSequencing();
+    }
+
+    /**
+     * Queues a sequencing run; requests made while one is queued share it. Also runs on a timer,
+     * which picks up entries committed through other instances and any a failed run left behind.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.sequence-interval-ms:1000}")
+    public void requestSequencing() {
+        if (sequencingRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                sequencingRequested.set(false);
+                try {
+                    sequence();
+                } catch (RuntimeException e) {
+                    log.warn("Change feed sequencing failed", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Gives every committed entry without a position the next positions, in id order, then wakes
+     * the long-polls of the organizations whose entries were sequenced since the last run.
+     */
+    public synchronized void sequence() {
+        createHeadIfMissing();
+        Sequenced batch;
+        do {
+            batch = writeTemplate.execute(status -> sequenceBatch());
+        } while (batch.count() == sequenceBatchSize);
+        wakeUpTo(batch.head());
+    }
+
+    @Scheduled(fixedDelayString = "${app.changes.compaction-interval-ms:60000}")
+    public void compact() {
+        Long oldest = changeLogRepository.findMinPosition();
+        if (oldest == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long retainedFrom = oldest - 1;
+
+        Long expiredUpTo = changeLogRepository.findMaxPositionChangedBefore(Instant.ofEpochMilli(now - retentionMillis));
+        if (expiredUpTo != null) {
+            expiredEntries.increment(deleteInChunks(retainedFrom, expiredUpTo, changeLogRepository::deleteRange));
+            retainedFrom = Math.max(retainedFrom, expiredUpTo);
+        }
+
+        Long compactableUpTo = changeLogRepository.findMaxPositionChangedBefore(Instant.ofEpochMilli(now - compactAfterMillis));
+        if (compactableUpTo != null) {
+            long from = Math.max(retainedFrom, compactedUpTo.get());
+            supersededEntries.increment(deleteInChunks(from, compactableUpTo, changeLogRepository::deleteSupersededInRange));
+            compactedUpTo.accumulateAndGet(compactableUpTo, Math::max);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private ChangeBatch read(Long organizationId, String since, Integer limit) {
+        long now = System.currentTimeMillis();
+        if (since == null || since.isBlank()) {
+            Long head = changeLogRepository.findMaxPosition();
+            return new ChangeBatch(List.of(), new Cursor(head == null ? 0 : head, now).encode(), false);
+        }
+
+        Cursor cursor = Cursor.decode(since);
+        if (cursor.asOfMillis() < now - retentionMillis + EXPIRY_SLACK_MILLIS) {
+            throw new ChangeFeedExpiredException("Cursor is older than the retained change log; reload and start from a new cursor");
+        }
+        int batchSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        // Fetch one extra entry to learn whether another batch follows
+        List<ChangeLogEntry> entries = organizationId == null
+                ? changeLogRepository.findAllSequencedAfter(cursor.afterPosition(), Limit.of(batchSize + 1))
+                : changeLogRepository.findSequencedAfter(organizationId, cursor.afterPosition(), Limit.of(batchSize + 1));
+        boolean hasMore = entries.size() > batchSize;
+        if (hasMore) {
+            entries = entries.subList(0, batchSize);
+        }
+        if (entries.isEmpty()) {
+            return new ChangeBatch(List.of(), new Cursor(cursor.afterPosition(), now).encode(), false);
+        }
+
+        ChangeLogEntry last = entries.get(entries.size() - 1);
+        // A full batch is only known to be complete up to its last entry
+        long asOf = hasMore ? last.getChangedAt().toEpochMilli() : now;
+        return new ChangeBatch(resolve(organizationId, entries), new Cursor(last.getPosition(), asOf).encode(), hasMore);
+    }
+
+    // Collapses the batch to the latest change per record and attaches the records' current state
+    private List<ChangeDto> resolve(Long organizationId, List<ChangeLogEntry> entries) {
+        Map<List<Object>, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            List<Object> key = List.of(entry.getEntity(), entry.getEntityId());
+            latest.remove(key);
+            latest.put(key, entry);
+        }
+
+        Set<Long> userIds = latest.values().stream()
+                .filter(entry -> entry.getEntity() == Entity.USER && entry.getChangeType() != ChangeType.DELETED)
+                .map(ChangeLogEntry::getEntityId)
+                .collect(toSet());
+        List<UserSummary> summaries = userIds.isEmpty() ? List.of()
+                : organizationId == null
+                ? userRepository.findSummariesByIdIn(userIds)
+                : userRepository.findSummariesByOrganizationIdAndIdIn(organizationId, userIds);
+        Map<Long, UserDto> users = summaries.stream().collect(toMap(UserSummary::id, UserDto::from));
+
+        return latest.values().stream().map(entry -> toDto(entry, users)).toList();
+    }
+
+    private ChangeDto toDto(ChangeLogEntry entry, Map<Long, UserDto> users) {
+        ChangeDto.ChangeDtoBuilder change = ChangeDto.builder().entity(entry.getEntity()).id(entry.getEntityId());
+        if (entry.getChangeType() == ChangeType.DELETED) {
+            return change.changeType(ChangeType.DELETED).build();
+        }
+        if (entry.getEntity() == Entity.USER) {
+            UserDto user = users.get(entry.getEntityId());
+            // Gone since the change was logged; its deletion follows later in the feed
+            return user == null ? change.changeType(ChangeType.DELETED).build() : change.changeType(entry.getChangeType()).user(user).build();
+        }
+        Optional<OrganizationDto> organization = organizationCatalog.findById(entry.getEntityId());
+        return organization.isEmpty() ? change.changeType(ChangeType.DELETED).build()
+                : change.changeType(entry.getChangeType()).organization(organization.get()).build();
+    }
+
+    private void createHeadIfMissing() {
+        if (headCreated) {
+            return;
+        }
+        try {
+            writeTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.queryForList(SELECT_HEAD_SQL, Long.class, ChangeLogHead.ID).isEmpty()) {
+                    jdbcTemplate.update(INSERT_HEAD_SQL, ChangeLogHead.ID);
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            // Another instance created it first
+        }
+        headCreated = true;
+    }
+
+    private Sequenced sequenceBatch() {
+        if (jdbcTemplate.queryForList(UNSEQUENCED_SQL, Long.class, sequenceBatchSize).isEmpty()) {
+            return new Sequenced(jdbcTemplate.queryForObject(SELECT_HEAD_SQL, Long.class, ChangeLogHead.ID), 0);
+        }
+        // Held until commit: positions above the head only ever commit after every position below it
+        long head = jdbcTemplate.queryForObject(SELECT_HEAD_SQL + " FOR UPDATE", Long.class, ChangeLogHead.ID);
+        // Read again under the lock, leaving out what another instance sequenced while this one waited
+        List<Long> ids = jdbcTemplate.queryForList(UNSEQUENCED_SQL, Long.class, sequenceBatchSize);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            rows.add(new Object[]{head + i + 1, now, ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate(SEQUENCE_SQL, rows);
+        jdbcTemplate.update(UPDATE_HEAD_SQL, head + ids.size(), ChangeLogHead.ID);
+        return new Sequenced(head + ids.size(), ids.size());
+    }
+
+    // Covers positions sequenced by any instance, not only by this one. The mark moves before waiters
+    // are looked at, so a poll registering meanwhile sees it moved and checks for itself.
+    private void wakeUpTo(long head) {
+        long from = wokenUpTo.get();
+        if (head <= from) {
+            return;
+        }
+        wokenUpTo.set(head);
+        if (waiterCount.get() == 0) {
+            return;
+        }
+        Set<Long> keys = new HashSet<>(from < 0 ? waiters.keySet()
+                : jdbcTemplate.queryForList(ORGANIZATIONS_SEQUENCED_SQL, Long.class, from, head));
+        keys.add(ALL_ORGANIZATIONS);
+        keys.forEach(this::wake);
+    }
+
+    private void wake(long key) {
+        Set<Waiter> organizationWaiters = waiters.get(key);
+        if (organizationWaiters == null || organizationWaiters.isEmpty()) {
+            return;
+        }
+        Long organizationId = key == ALL_ORGANIZATIONS ? null : key;
+        // Waiters holding the same cursor share one read
+        organizationWaiters.stream()
+                .collect(groupingBy(waiter -> Arrays.asList(waiter.since(), waiter.limit())))
+                .values()
+                .forEach(group -> {
+                    try {
+                        // From the primary: a replica may not have the entries that triggered the wakeup yet
+                        ChangeBatch batch = writeTemplate.execute(status -> read(organizationId, group.get(0).since(), group.get(0).limit()));
+                        if (!batch.getChanges().isEmpty()) {
+                            group.forEach(waiter -> waiter.result().setResult(batch));
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("Change feed wakeup for organization {} failed", organizationId, e);
+                        group.forEach(waiter -> waiter.result().setErrorResult(e));
+                    }
+                });
+    }
+
+    private long deleteInChunks(long fromExclusive, long toInclusive, BiFunction<Long, Long, Integer> delete) {
+        long deleted = 0;
+        for (long from = fromExclusive; from < toInclusive; from += compactionChunkSize) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(from + compactionChunkSize, toInclusive);
+            Integer count = writeTemplate.execute(status -> delete.apply(chunkFrom, chunkTo));
+            deleted += count == null ? 0 : count;
+        }
+        return deleted;
+    }
+
+    private record Waiter(String since, Integer limit, DeferredResult<ChangeBatch> result) {
+    }
+
+    private record Sequenced(long head, int count) {
+    }
+}
@@ -0,0 +1,90 @@
+package org.hr.platform.service;
+
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters for the directory, used to answer conditional GETs on list endpoints.
+ * <p>
+ * Every {@link DirectoryChangeEvent} takes the next value of one sequence and records it as the
+ * global version, the version of the affected organization and, for organization changes, the
+ * version of the organization list. Counters are bumped after commit, and callers read the version
+ * before querying, so a tag can only ever be older than the data it was sent with, never newer.
+ * <p>
+ * Tags embed the instance's start time: counters live in memory and restart from zero. They are
+ * also per instance, so with several replicas behind a non-sticky balancer a write on one replica
+ * is invisible to another's counters; set {@code app.directory.etags.enabled=false} there.
+ */
+@Component
+public class DirectoryVersions {
+
+    // Lets the browser keep list responses but makes it revalidate them on every use
+    public static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final boolean enabled;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong organizationsVersion = new AtomicLong();
+    private final Map<Long, AtomicLong> organizationVersions = new ConcurrentHashMap<>();
+
+    public DirectoryVersions(@Value("${app.directory.etags.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Last, once caches built from the same events have caught up
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDirectoryChange(DirectoryChangeEvent event) {
+        long version = sequence.incrementAndGet();
+        if (event.organizationId() != null) {
+            organizationVersions.computeIfAbsent(event.organizationId(), id -> new AtomicLong())
+                    .accumulateAndGet(version, Math::max);
+        }
+        if (event.entity() == DirectoryChangeEvent.Entity.ORGANIZATION) {
+            organizationsVersion.accumulateAndGet(version, Math::max);
+        }
+    }
+
+    /**
+     * Tag for data spanning every organization, such as the global user list or statistics.
+     */
+    public String globalTag(Object... variant) {
+        return tag(Long.toString(sequence.get()), variant);
+    }
+
+    /**
+     * Tag for data confined to one organization's users.
+     */
+    public String organizationTag(Long organizationId, Object... variant) {
+        AtomicLong version = organizationVersions.get(organizationId);
+        // The id is part of the tag: two organizations can be at the same version, and a browser
+        // shared by their admins keys its cache on the URL alone
+        return tag(organizationId + "." + (version != null ? version.get() : 0), variant);
+    }
+
+    /**
+     * Tag for the list of organizations.
+     */
+    public String organizationsTag(Object... variant) {
+        return tag(Long.toString(organizationsVersion.get()), variant);
+    }
+
+    // Weak: the body is only semantically the same, its serialization may differ byte for byte.
+    // Null when disabled, which makes checkNotModified a no-op.
+    private String tag(String version, Object... variant) {
+        if (!enabled) {
+            return null;
+        }
+        return "W/\"" + epoch + "-" + version + "-" + Integer.toHexString(Arrays.hashCode(variant)) + "\"";
+    }
+}
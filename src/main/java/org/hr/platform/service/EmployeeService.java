@@ -2,6 +2,7 @@ package org.hr.platform.service;
 
 import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.UserDto;
+import org.hr.platform.security.CurrentPrincipal;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -10,7 +11,7 @@ public class EmployeeService {
 
     private final UserService userService;
 
-    public UserDto viewOwnProfile() {
-        return UserDto.from(userService.getCurrentUser());
+    public UserDto viewOwnProfile(CurrentPrincipal principal) {
+        return userService.getMyProfile(principal);
     }
 }
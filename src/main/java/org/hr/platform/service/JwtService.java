@@ -1,10 +1,16 @@
 package org.hr.platform.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.hr.platform.model.SuperAdmin;
 import org.hr.platform.model.User;
+import org.hr.platform.security.JwtClaims;
+import org.hr.platform.security.SessionRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -12,14 +18,29 @@ import java.security.Key;
 import java.util.Date;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    private final SessionRegistry sessionRegistry;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
+    // Derived once from jwt.secret; both are immutable and safe to share across threads
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateToken(User user) {
         return Jwts.builder()
                 .setSubject(user.getEmail())
@@ -28,9 +49,10 @@ public class JwtService {
                 .claim("role", user.getRole().name())
                 .claim("userType", "USER")
                 .claim("firstLogin", user.isFirstLogin())
+                .claim("gen", sessionRegistry.currentGeneration(user.getEmail()))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -41,43 +63,56 @@ public class JwtService {
                 .claim("role", "SUPERADMIN") // Use consistent string to match Spring Security authorities
                 .claim("userType", "SUPERADMIN")
                 .claim("firstLogin", superAdmin.isFirstLogin())
+                .claim("gen", sessionRegistry.currentGeneration(superAdmin.getEmail()))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Parses and verifies the token in a single pass.
+     * Throws a {@link io.jsonwebtoken.JwtException} when the token is invalid or expired.
+     */
+    public JwtClaims verify(String token) {
+        Claims claims = parseClaims(token);
+        String userType = claims.get("userType", String.class);
+        Boolean firstLogin = claims.get("firstLogin", Boolean.class);
+        Date expiresAt = claims.getExpiration();
+        Long generation = claims.get("gen", Long.class);
+
+        return JwtClaims.builder()
+                .subject(claims.getSubject())
+                .userType(userType)
+                .role(claims.get("role", String.class))
+                .userId("SUPERADMIN".equals(userType)
+                        ? claims.get("superAdminId", Long.class)
+                        : claims.get("userId", Long.class))
+                .organizationId(claims.get("orgId", Long.class))
+                .firstLogin(Boolean.TRUE.equals(firstLogin))
+                .generation(generation != null ? generation : 0)
+                .expiresAt(expiresAt != null ? expiresAt.toInstant() : null)
+                .build();
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public String extractUserType(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("userType", String.class);
+        return parseClaims(token).get("userType", String.class);
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 }
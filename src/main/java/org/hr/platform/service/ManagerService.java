@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.UserDto;
 import org.hr.platform.enums.Role;
 import org.hr.platform.repository.UserRepository;
+import org.hr.platform.security.CurrentPrincipal;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,12 +13,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ManagerService {
 
-    private final UserService userService;
     private final UserRepository userRepository;
 
-    public List<UserDto> viewEmployeesInOrg() {
-        Long orgId = userService.getCurrentUser().getOrganization().getId();
-        return userRepository.findByOrganizationIdAndRole(orgId, Role.EMPLOYEE)
+    public List<UserDto> viewEmployeesInOrg(CurrentPrincipal manager) {
+        return userRepository.findSummariesByOrganizationIdAndRole(manager.organizationId(), Role.EMPLOYEE)
                 .stream()
                 .map(UserDto::from)
                 .toList();
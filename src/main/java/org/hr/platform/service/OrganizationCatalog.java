@@ -0,0 +1,160 @@
+package org.hr.platform.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hr.platform.dto.OrganizationDto;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.repository.OrganizationRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory copy of the organizations table, so listings and lookups by id or name need no query.
+ * <p>
+ * Readers see an immutable snapshot through one volatile read; writers build a new snapshot under
+ * a lock. The catalog is loaded at startup, refreshes a single organization after every committed
+ * {@link DirectoryChangeEvent} about it, and reloads in full on {@code app.org-catalog.reload-interval-ms}
+ * to pick up changes made through another instance. A lookup of an unknown id falls through to
+ * the database once and caches what it finds.
+ */
+@Slf4j
+@Component
+public class OrganizationCatalog {
+
+    private final OrganizationRepository organizationRepository;
+    private final TransactionTemplate refreshTransaction;
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter fullReloads;
+    private final Counter singleReloads;
+
+    public OrganizationCatalog(OrganizationRepository organizationRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.organizationRepository = organizationRepository;
+        // Refreshes run after the publishing transaction committed, so they need one of their own
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.hits = meterRegistry.counter("organizations.catalog.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("organizations.catalog.lookups", "result", "miss");
+        this.fullReloads = meterRegistry.counter("organizations.catalog.reloads", "scope", "full");
+        this.singleReloads = meterRegistry.counter("organizations.catalog.reloads", "scope", "single");
+        Gauge.builder("organizations.catalog.size", this, catalog -> catalog.snapshot != null ? catalog.snapshot.byId().size() : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * All organizations ordered by id.
+     */
+    public List<OrganizationDto> findAll() {
+        return current().all();
+    }
+
+    public Optional<OrganizationDto> findById(Long id) {
+        OrganizationDto organization = current().byId().get(id);
+        if (organization != null) {
+            hits.increment();
+            return Optional.of(organization);
+        }
+        misses.increment();
+        Optional<OrganizationDto> loaded = organizationRepository.findById(id).map(OrganizationDto::from);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public boolean existsByName(String name) {
+        boolean exists = current().byName().containsKey(name);
+        (exists ? hits : misses).increment();
+        return exists;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.org-catalog.reload-interval-ms:300000}",
+            fixedDelayString = "${app.org-catalog.reload-interval-ms:300000}")
+    public void reload() {
+        synchronized (writeLock) {
+            snapshot = Snapshot.of(organizationRepository.findAll().stream().map(OrganizationDto::from).toList());
+        }
+        fullReloads.increment();
+        log.debug("Organization catalog reloaded ({} organizations)", snapshot.byId().size());
+    }
+
+    // Before DirectoryVersions bumps its counters, so a fresh ETag never goes out with stale catalog data
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDirectoryChange(DirectoryChangeEvent event) {
+        if (event.entity() != DirectoryChangeEvent.Entity.ORGANIZATION || event.organizationId() == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            Optional<OrganizationDto> organization = refreshTransaction.execute(status ->
+                    organizationRepository.findById(event.organizationId()).map(OrganizationDto::from));
+            Map<Long, OrganizationDto> byId = new HashMap<>(current().byId());
+            if (organization != null && organization.isPresent()) {
+                byId.put(event.organizationId(), organization.get());
+            } else {
+                byId.remove(event.organizationId());
+            }
+            snapshot = Snapshot.of(byId.values());
+        }
+        singleReloads.increment();
+    }
+
+    private void put(OrganizationDto organization) {
+        synchronized (writeLock) {
+            Map<Long, OrganizationDto> byId = new HashMap<>(current().byId());
+            byId.put(organization.getId(), organization);
+            snapshot = Snapshot.of(byId.values());
+        }
+    }
+
+    // Loads on first use when a lookup comes in before the startup warm-up
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (writeLock) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private record Snapshot(Map<Long, OrganizationDto> byId, Map<String, OrganizationDto> byName, List<OrganizationDto> all) {
+
+        static Snapshot of(Iterable<OrganizationDto> organizations) {
+            Map<Long, OrganizationDto> byId = new HashMap<>();
+            Map<String, OrganizationDto> byName = new HashMap<>();
+            for (OrganizationDto organization : organizations) {
+                byId.put(organization.getId(), organization);
+                byName.put(organization.getName(), organization);
+            }
+            List<OrganizationDto> all = byId.values().stream()
+                    .sorted(Comparator.comparing(OrganizationDto::getId))
+                    .toList();
+            // Map.copyOf gives compact open-addressed tables without per-entry nodes
+            return new Snapshot(Map.copyOf(byId), Map.copyOf(byName), all);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.hr.platform.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hr.platform.dto.OrganizationDeletionJobDto;
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.enums.OrganizationStatus;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.model.Organization;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes organizations in the background.
+ * <p>
+ * The organization is first marked {@code DELETING}, which blocks new logins to it. Its users are
+ * then removed in chunks of {@code app.org-deletion.chunk-size}, one short transaction per chunk,
+ * and the organization row goes last. Every step is idempotent, so a job that fails or is cut
+ * short by a restart simply picks up where it left off when it is requested again (or at startup).
+ */
+@Slf4j
+@Service
+public class OrganizationDeletionService {
+
+    private final OrganizationRepository organizationRepository;
+    private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final long retentionMillis;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "organization-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Job> jobsByOrganization = new ConcurrentHashMap<>();
+
+    public OrganizationDeletionService(OrganizationRepository organizationRepository,
+                                       UserRepository userRepository,
+                                       RefreshTokenService refreshTokenService,
+                                       PlatformTransactionManager transactionManager,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${app.org-deletion.chunk-size:500}") int chunkSize,
+                                       @Value("${app.org-deletion.retention-ms:3600000}") long retentionMillis) {
+        this.organizationRepository = organizationRepository;
+        this.userRepository = userRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+     * Starts deleting the organization, or returns the job already doing so.
+     */
+    public synchronized OrganizationDeletionJobDto requestDeletion(Long organizationId) {
+        Job existing = jobsByOrganization.get(organizationId);
+        if (existing != null && !Job.FAILED.equals(existing.status)) {
+            return existing.toDto();
+        }
+        if (!organizationRepository.existsById(organizationId)) {
+            throw new RuntimeException("Organization not found");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            organizationRepository.updateStatus(organizationId, OrganizationStatus.DELETING);
+            eventPublisher.publishEvent(DirectoryChangeEvent.organization(ChangeType.UPDATED, organizationId));
+        });
+        return submit(organizationId).toDto();
+    }
+
+    public Optional<OrganizationDeletionJobDto> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::toDto);
+    }
+
+    // Resume deletions interrupted by a shutdown
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void resumePendingDeletions() {
+        for (Organization organization : organizationRepository.findByStatus(OrganizationStatus.DELETING)) {
+            if (!jobsByOrganization.containsKey(organization.getId())) {
+                submit(organization.getId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.org-deletion.sweep-interval-ms:600000}")
+    public synchronized void purgeFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.toEpochMilli() < cutoff);
+        jobsByOrganization.values().removeIf(job -> !jobs.containsKey(job.id));
+    }
+
+    private Job submit(Long organizationId) {
+        Job job = new Job(UUID.randomUUID().toString(), organizationId, userRepository.countByOrganizationId(organizationId));
+        jobs.put(job.id, job);
+        jobsByOrganization.put(organizationId, job);
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    private void run(Job job) {
+        try {
+            while (true) {
+                List<UserSummary> chunk = transactionTemplate.execute(status -> {
+                    List<UserSummary> users = userRepository.findSummariesByOrganizationId(job.organizationId, Limit.of(chunkSize));
+                    if (!users.isEmpty()) {
+                        List<Long> ids = users.stream().map(UserSummary::id).toList();
+                        userRepository.deleteByIds(job.organizationId, ids);
+                        eventPublisher.publishEvent(DirectoryChangeEvent.users(ChangeType.DELETED, job.organizationId, ids));
+                    }
+                    return users;
+                });
+                if (chunk == null || chunk.isEmpty()) {
+                    break;
+                }
+                chunk.forEach(user -> refreshTokenService.revokeAllSessions(user.email()));
+                job.usersDeleted.addAndGet(chunk.size());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                organizationRepository.deleteById(job.organizationId);
+                eventPublisher.publishEvent(DirectoryChangeEvent.organization(ChangeType.DELETED, job.organizationId));
+            });
+            job.finish(Job.COMPLETED, null);
+            log.info("Deleted organization {} ({} users)", job.organizationId, job.usersDeleted.get());
+        } catch (RuntimeException e) {
+            log.error("Deletion of organization {} failed", job.organizationId, e);
+            job.finish(Job.FAILED, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class Job {
+        static final String RUNNING = "RUNNING";
+        static final String COMPLETED = "COMPLETED";
+        static final String FAILED = "FAILED";
+
+        private final String id;
+        private final Long organizationId;
+        private final long usersTotal;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong usersDeleted = new AtomicLong();
+        private volatile String status = RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        Job(String id, Long organizationId, long usersTotal) {
+            this.id = id;
+            this.organizationId = organizationId;
+            this.usersTotal = usersTotal;
+        }
+
+        void finish(String status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        OrganizationDeletionJobDto toDto() {
+            return OrganizationDeletionJobDto.builder()
+                    .id(id)
+                    .organizationId(organizationId)
+                    .status(status)
+                    .usersTotal(usersTotal)
+                    .usersDeleted(usersDeleted.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -2,9 +2,15 @@ package org.hr.platform.service;
 
 import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.CreateOrganizationRequest;
+import org.hr.platform.dto.OrganizationDeletionJobDto;
+import org.hr.platform.dto.OrganizationDto;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
 import org.hr.platform.model.Organization;
 import org.hr.platform.repository.OrganizationRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,27 +20,38 @@ import java.util.Optional;
 public class OrganizationService {
 
     private final OrganizationRepository organizationRepository;
+    private final OrganizationDeletionService organizationDeletionService;
+    private final OrganizationCatalog organizationCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<Organization> getAllOrganizations() {
-        return organizationRepository.findAll();
+    public List<OrganizationDto> getAllOrganizations() {
+        return organizationCatalog.findAll();
     }
 
-    public Optional<Organization> getOrganizationById(Long id) {
-        return organizationRepository.findById(id);
+    public Optional<OrganizationDto> getOrganizationById(Long id) {
+        return organizationCatalog.findById(id);
     }
 
+    @Transactional
     public Organization save(Organization org) {
-        return organizationRepository.save(org);
+        ChangeType changeType = org.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+        Organization saved = organizationRepository.save(org);
+        eventPublisher.publishEvent(DirectoryChangeEvent.organization(changeType, saved.getId()));
+        return saved;
     }
 
+    @Transactional
     public void delete(Long id) {
         organizationRepository.deleteById(id);
+        eventPublisher.publishEvent(DirectoryChangeEvent.organization(ChangeType.DELETED, id));
     }
 
     public boolean existsByName(String name) {
-        return organizationRepository.existsByName(name);
+        // The unique constraint on name still catches a create racing through another instance
+        return organizationCatalog.existsByName(name);
     }
 
+    @Transactional
     public void createOrganization(CreateOrganizationRequest request) {
         if (existsByName(request.getName())) {
             throw new RuntimeException("Organization with this name already exists");
@@ -46,12 +63,17 @@ public class OrganizationService {
                 .build();
 
         organizationRepository.save(organization);
+        eventPublisher.publishEvent(DirectoryChangeEvent.organization(ChangeType.CREATED, organization.getId()));
     }
 
-    public void deleteOrganization(Long id) {
-        Organization organization = organizationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Organization not found"));
+    /**
+     * Starts a background deletion of the organization and its users; poll the returned job for progress.
+     */
+    public OrganizationDeletionJobDto deleteOrganization(Long id) {
+        return organizationDeletionService.requestDeletion(id);
+    }
 
-        organizationRepository.delete(organization);
+    public Optional<OrganizationDeletionJobDto> getDeletionJob(String jobId) {
+        return organizationDeletionService.getJob(jobId);
     }
 }
@@ -1,46 +1,147 @@
 package org.hr.platform.service;
 
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.JwtException;
+import org.hr.platform.security.JwtClaims;
+import org.hr.platform.security.SessionRegistry;
+import org.hr.platform.security.VerifiedTokenCache;
+import org.hr.platform.store.RefreshTokenRecord;
+import org.hr.platform.store.RefreshTokenStore;
+import org.hr.platform.util.TokenHasher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
 
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SessionRegistry sessionRegistry;
 
-    // In-memory storage for refresh tokens (for production, use Redis or database)
-    private final Map<String, String> refreshTokenStore = new ConcurrentHashMap<>();
-    private final Map<String, String> blacklistedTokens = new ConcurrentHashMap<>();
+    // In-memory by default; set auth.refresh-token.store=jdbc to share tokens between replicas
+    private final RefreshTokenStore refreshTokenStore;
 
-    public String generateRefreshToken(String email) {
+    private final long refreshTokenExpiration;
+    private final long accessTokenExpiration;
+
+    public RefreshTokenService(JwtService jwtService,
+                               VerifiedTokenCache verifiedTokenCache,
+                               SessionRegistry sessionRegistry,
+                               RefreshTokenStore refreshTokenStore,
+                               @Value("${jwt.refresh-expiration:604800000}") long refreshTokenExpiration,
+                               @Value("${jwt.expiration}") long accessTokenExpiration) {
+        this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.sessionRegistry = sessionRegistry;
+        this.refreshTokenStore = refreshTokenStore;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+        this.accessTokenExpiration = accessTokenExpiration;
+    }
+
+    public String generateRefreshToken(String email, String userType) {
         String refreshToken = UUID.randomUUID().toString();
-        refreshTokenStore.put(refreshToken, email);
+        long generation = sessionRegistry.currentGeneration(email);
+        long now = System.currentTimeMillis();
+        long expiresAt = now + refreshTokenExpiration;
+
+        refreshTokenStore.save(refreshToken, new RefreshTokenRecord(email, userType, generation, expiresAt));
+        sessionRegistry.register(email, sessionId(refreshToken), generation, now, expiresAt);
         return refreshToken;
     }
 
+    /**
+     * Consumes the refresh token and issues its replacement in one step. The consume is a
+     * single compare-and-remove in the store, so when the same token is presented concurrently
+     * exactly one caller gets a rotation and every other caller gets null.
+     */
+    public Rotation rotateRefreshToken(String refreshToken) {
+        if (refreshToken == null || refreshTokenStore.isRevoked(refreshToken)) {
+            return null;
+        }
+        RefreshTokenRecord consumed = refreshTokenStore.consume(refreshToken);
+        if (consumed == null) {
+            return null;
+        }
+        sessionRegistry.unregister(consumed.email(), sessionId(refreshToken));
+        if (consumed.generation() < sessionRegistry.currentGeneration(consumed.email())) {
+            // Issued before the account's sessions were revoked
+            return null;
+        }
+        String replacement = generateRefreshToken(consumed.email(), consumed.userType());
+        return new Rotation(consumed.email(), consumed.userType(), replacement);
+    }
+
     public String getUserEmailFromRefreshToken(String refreshToken) {
-        return refreshTokenStore.get(refreshToken);
+        RefreshTokenRecord record = refreshTokenStore.find(refreshToken);
+        return record != null ? record.email() : null;
     }
 
     public boolean isValidRefreshToken(String refreshToken) {
-        return refreshTokenStore.containsKey(refreshToken) && !blacklistedTokens.containsKey(refreshToken);
+        RefreshTokenRecord record = refreshTokenStore.find(refreshToken);
+        return record != null
+                && record.generation() >= sessionRegistry.currentGeneration(record.email())
+                && !refreshTokenStore.isRevoked(refreshToken);
+    }
+
+    /**
+     * Invalidates every refresh and access token the account holds, e.g. after a password change.
+     */
+    public void revokeAllSessions(String email) {
+        sessionRegistry.revokeAll(email);
+    }
+
+    public List<SessionRegistry.Session> getActiveSessions(String email) {
+        return sessionRegistry.activeSessions(email);
     }
 
     public void invalidateRefreshToken(String refreshToken) {
-        refreshTokenStore.remove(refreshToken);
-        blacklistedTokens.put(refreshToken, "blacklisted");
+        RefreshTokenRecord removed = refreshTokenStore.consume(refreshToken);
+        if (removed != null) {
+            sessionRegistry.unregister(removed.email(), sessionId(refreshToken));
+            // No need to remember it past the point where it would have expired anyway
+            refreshTokenStore.revoke(refreshToken, removed.expiresAtMillis());
+        }
     }
 
     public void blacklistToken(String token) {
-        blacklistedTokens.put(token, "blacklisted");
+        refreshTokenStore.revoke(token, accessTokenExpiry(token));
+        verifiedTokenCache.invalidate(token);
     }
 
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.containsKey(token);
+        return refreshTokenStore.isRevoked(token);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.token-store.sweep-interval-ms:60000}")
+    public void purgeExpired() {
+        refreshTokenStore.purgeExpired();
+        sessionRegistry.purgeExpired();
+    }
+
+    public record Rotation(String email, String userType, String refreshToken) {
+
+        public boolean isSuperAdmin() {
+            return "SUPERADMIN".equals(userType);
+        }
+    }
+
+    // Short, non-reversible handle for listing a session without exposing the token
+    private static String sessionId(String refreshToken) {
+        return TokenHasher.sha256(refreshToken).substring(0, 16);
+    }
+
+    private long accessTokenExpiry(String token) {
+        try {
+            JwtClaims claims = jwtService.verify(token);
+            if (claims.getExpiresAt() != null) {
+                return claims.getExpiresAt().toEpochMilli();
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            // Not a verifiable access token; keep it for the longest an access token can live
+        }
+        return System.currentTimeMillis() + accessTokenExpiration;
     }
 }
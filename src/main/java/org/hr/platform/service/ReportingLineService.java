@@ -0,0 +1,124 @@
+package org.hr.platform.service;
+
+import org.hr.platform.dto.CursorPage;
+import org.hr.platform.dto.ReportingCounts;
+import org.hr.platform.dto.UserDto;
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.model.User;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.ReportingLineRepository;
+import org.hr.platform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Who reports to whom. {@code User.manager} holds the direct manager and the
+ * {@link org.hr.platform.model.ReportingLine} closure table holds every (manager, report) pair,
+ * so direct reports, a whole subtree and its headcount are each one indexed query, and moving a
+ * subtree of any size is a fixed handful of statements.
+ */
+@Service
+public class ReportingLineService {
+
+    private final UserRepository userRepository;
+    private final OrganizationRepository organizationRepository;
+    private final ReportingLineRepository reportingLineRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ReportingLineService(UserRepository userRepository,
+                                OrganizationRepository organizationRepository,
+                                ReportingLineRepository reportingLineRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.pagination.default-size:50}") int defaultPageSize,
+                                @Value("${app.pagination.max-size:500}") int maxPageSize) {
+        this.userRepository = userRepository;
+        this.organizationRepository = organizationRepository;
+        this.reportingLineRepository = reportingLineRepository;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getDirectReports(Long organizationId, Long managerId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        return page(userRepository.findDirectReportsAfter(
+                organizationId, managerId, CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    /**
+     * Everyone in the manager's reporting line at any depth, keyset-paginated by id.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getReportingLine(Long organizationId, Long managerId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        return page(userRepository.findReportingLineAfter(
+                organizationId, managerId, CursorPage.decodeCursor(cursor), Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public ReportingCounts countReports(Long managerId) {
+        return reportingLineRepository.countReports(managerId);
+    }
+
+    /**
+     * Makes {@code managerId} the user's manager, bringing everyone who reports to the user along.
+     * A null manager detaches the user's subtree. Moves within an organization are serialized on
+     * its row, so two concurrent moves can never close a cycle.
+     */
+    @Transactional
+    public void assignManager(Long organizationId, Long userId, Long managerId) {
+        if (userId.equals(managerId)) {
+            throw new IllegalArgumentException("A user cannot report to themselves");
+        }
+        organizationRepository.findWithLockById(organizationId)
+                .orElseThrow(() -> new RuntimeException("Organization not found"));
+        User user = userRepository.findByIdAndOrganizationId(userId, organizationId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        User manager = null;
+        if (managerId != null) {
+            manager = userRepository.findByIdAndOrganizationId(managerId, organizationId)
+                    .orElseThrow(() -> new RuntimeException("Manager not found"));
+            if (reportingLineRepository.existsByAncestorIdAndDescendantId(userId, managerId)) {
+                throw new IllegalArgumentException("A user cannot report to someone in their own reporting line");
+            }
+        }
+        if (Objects.equals(user.getManager() != null ? user.getManager().getId() : null, managerId)) {
+            return;
+        }
+
+        reportingLineRepository.detachSubtree(userId);
+        if (manager != null) {
+            reportingLineRepository.attachSubtree(userId, managerId);
+        }
+        user.setManager(manager);
+        userRepository.save(user);
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.UPDATED, organizationId, userId));
+    }
+
+    private int pageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    // Rows are fetched one past the page size to learn whether another page follows
+    private static CursorPage<UserDto> page(List<UserSummary> users, int pageSize) {
+        boolean hasMore = users.size() > pageSize;
+        List<UserDto> items = users.stream()
+                .limit(pageSize)
+                .map(UserDto::from)
+                .toList();
+        String nextCursor = hasMore ? CursorPage.encodeCursor(items.get(items.size() - 1).getId()) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+}
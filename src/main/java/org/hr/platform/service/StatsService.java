@@ -0,0 +1,73 @@
+package org.hr.platform.service;
+
+import lombok.RequiredArgsConstructor;
+import org.hr.platform.dto.DirectoryStats;
+import org.hr.platform.dto.HeadcountRow;
+import org.hr.platform.enums.Role;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard headcounts, aggregated in the database so only one row per organization and role
+ * comes back no matter how many users there are.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatsService {
+
+    private final UserRepository userRepository;
+    private final OrganizationRepository organizationRepository;
+
+    @Transactional(readOnly = true)
+    public DirectoryStats getGlobalStats() {
+        return aggregate(userRepository.countByOrganizationAndRole(), organizationRepository.count());
+    }
+
+    @Transactional(readOnly = true)
+    public DirectoryStats getOrganizationStats(Long organizationId) {
+        return aggregate(userRepository.countByOrganizationAndRole(organizationId), 1);
+    }
+
+    private static DirectoryStats aggregate(List<HeadcountRow> rows, long totalOrganizations) {
+        Map<Long, List<HeadcountRow>> rowsByOrganization = rows.stream()
+                .collect(Collectors.groupingBy(HeadcountRow::organizationId, LinkedHashMap::new, Collectors.toList()));
+
+        List<DirectoryStats.OrganizationHeadcount> organizations = rowsByOrganization.values().stream()
+                .map(organizationRows -> DirectoryStats.OrganizationHeadcount.builder()
+                        .id(organizationRows.get(0).organizationId())
+                        .name(organizationRows.get(0).organizationName())
+                        .totalUsers(sum(organizationRows, HeadcountRow::users))
+                        .firstLoginPending(sum(organizationRows, HeadcountRow::firstLoginPending))
+                        .usersByRole(usersByRole(organizationRows))
+                        .build())
+                .toList();
+
+        return DirectoryStats.builder()
+                .totalUsers(sum(rows, HeadcountRow::users))
+                .totalOrganizations(totalOrganizations)
+                .firstLoginPending(sum(rows, HeadcountRow::firstLoginPending))
+                .usersByRole(usersByRole(rows))
+                .organizations(organizations)
+                .build();
+    }
+
+    private static long sum(List<HeadcountRow> rows, Function<HeadcountRow, Long> count) {
+        return rows.stream().map(count).filter(Objects::nonNull).mapToLong(Long::longValue).sum();
+    }
+
+    private static Map<Role, Long> usersByRole(List<HeadcountRow> rows) {
+        Map<Role, Long> usersByRole = new EnumMap<>(Role.class);
+        rows.forEach(row -> usersByRole.merge(row.role(), row.users(), Long::sum));
+        return usersByRole;
+    }
+}
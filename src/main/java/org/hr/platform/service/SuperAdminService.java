@@ -3,21 +3,27 @@ package org.hr.platform.service;
 import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.CreateSuperAdminRequest;
 import org.hr.platform.dto.CreateUserRequest;
+import org.hr.platform.dto.CursorPage;
+import org.hr.platform.dto.OrganizationDto;
 import org.hr.platform.dto.UpdateUserRequest;
 import org.hr.platform.dto.UserDto;
+import org.hr.platform.enums.OrganizationStatus;
 import org.hr.platform.enums.Role;
-import org.hr.platform.model.Organization;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
 import org.hr.platform.model.SuperAdmin;
 import org.hr.platform.model.User;
 import org.hr.platform.repository.OrganizationRepository;
 import org.hr.platform.repository.SuperAdminRepository;
 import org.hr.platform.repository.UserRepository;
+import org.hr.platform.security.CurrentPrincipal;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +32,11 @@ public class SuperAdminService {
     private final SuperAdminRepository superAdminRepository;
     private final UserRepository userRepository;
     private final OrganizationRepository organizationRepository;
+    private final OrganizationCatalog organizationCatalog;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // SuperAdmin CRUD operations
     public void createSuperAdmin(CreateSuperAdminRequest request) {
@@ -46,49 +56,50 @@ public class SuperAdminService {
         superAdminRepository.save(superAdmin);
     }
 
+    @Transactional(readOnly = true)
     public List<SuperAdmin> getAllSuperAdmins() {
         return superAdminRepository.findAll();
     }
 
-    public void deleteSuperAdmin(String currentSuperAdminEmail, Long superAdminId) {
-        SuperAdmin currentSuperAdmin = superAdminRepository.findByEmail(currentSuperAdminEmail)
-                .orElseThrow(() -> new RuntimeException("Current SuperAdmin not found"));
-
-        SuperAdmin targetSuperAdmin = superAdminRepository.findById(superAdminId)
-                .orElseThrow(() -> new RuntimeException("SuperAdmin not found"));
-
+    @Transactional
+    public void deleteSuperAdmin(CurrentPrincipal currentSuperAdmin, Long superAdminId) {
         // Prevent SuperAdmin from deleting themselves
-        if (currentSuperAdmin.getId().equals(targetSuperAdmin.getId())) {
+        if (superAdminId.equals(currentSuperAdmin.userId())) {
             throw new AccessDeniedException("Cannot delete yourself");
         }
 
+        SuperAdmin targetSuperAdmin = superAdminRepository.findById(superAdminId)
+                .orElseThrow(() -> new RuntimeException("SuperAdmin not found"));
+
         superAdminRepository.delete(targetSuperAdmin);
+        refreshTokenService.revokeAllSessions(targetSuperAdmin.getEmail());
     }
 
     // Organization management for SuperAdmins
-    public List<Organization> getAllOrganizations() {
-        return organizationRepository.findAll();
+    public List<OrganizationDto> getAllOrganizations() {
+        return organizationCatalog.findAll();
     }
 
     // User management across ALL organizations for SuperAdmins
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(UserDto::from)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getAllUsers(Long organizationId, Role role, String cursor, Integer size) {
+        return userService.findUsersPage(organizationId, role, cursor, size);
     }
 
-    public List<UserDto> getUsersByOrganization(Long organizationId) {
-        return userRepository.findByOrganizationId(organizationId)
-                .stream()
-                .map(UserDto::from)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getUsersByOrganization(Long organizationId, Role role, String cursor, Integer size) {
+        return userService.findUsersPage(organizationId, role, cursor, size);
     }
 
+    @Transactional
     public void createUserInOrganization(Long organizationId, CreateUserRequest request) {
-        Organization organization = organizationRepository.findById(organizationId)
+        OrganizationDto organization = organizationCatalog.findById(organizationId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
 
+        if (organization.getStatus() == OrganizationStatus.DELETING) {
+            throw new RuntimeException("Organization is being deleted");
+        }
+
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new RuntimeException("User with this email already exists");
         }
@@ -97,16 +108,19 @@ public class SuperAdminService {
                 .email(request.getEmail())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .role(request.getRole())
-                .organization(organization)
+                .organization(organizationRepository.getReferenceById(organizationId))
                 .firstLogin(true)
                 .build();
 
         userRepository.save(user);
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.CREATED, organizationId, user.getId()));
     }
 
+    @Transactional
     public void updateUserAcrossOrganizations(Long userId, UpdateUserRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousEmail = user.getEmail();
 
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
             if (userRepository.findByEmail(request.getEmail()).isPresent()) {
@@ -125,12 +139,17 @@ public class SuperAdminService {
         }
 
         userRepository.save(user);
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.UPDATED, user.getOrganization().getId(), userId));
+        refreshTokenService.revokeAllSessions(previousEmail);
     }
 
+    @Transactional
     public void deleteUserAcrossOrganizations(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        userRepository.delete(user);
+        userRepository.deleteByIds(user.getOrganization().getId(), List.of(userId));
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.DELETED, user.getOrganization().getId(), userId));
+        refreshTokenService.revokeAllSessions(user.getEmail());
     }
 }
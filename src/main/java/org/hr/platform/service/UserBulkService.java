@@ -0,0 +1,130 @@
+package org.hr.platform.service;
+
+import org.hr.platform.dto.BulkOperationResult;
+import org.hr.platform.dto.BulkUserRequest;
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.enums.Role;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.repository.UserRepository;
+import org.hr.platform.security.CurrentPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Set-based user operations within one organization. The selection is resolved and changed in
+ * batches of at most {@code app.bulk.max-ids} users, each with one
+ * {@code ... WHERE id IN (...) AND organization_id = ?} statement, so a user outside the
+ * organization can never be touched whatever ids are sent. The calling admin is never part of
+ * their own selection.
+ */
+@Service
+public class UserBulkService {
+
+    private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxIds;
+
+    public UserBulkService(UserRepository userRepository,
+                           RefreshTokenService refreshTokenService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${app.bulk.max-ids:10000}") int maxIds) {
+        this.userRepository = userRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.eventPublisher = eventPublisher;
+        this.maxIds = maxIds;
+    }
+
+    @Transactional
+    public BulkOperationResult changeRole(CurrentPrincipal caller, Long organizationId, BulkUserRequest request) {
+        if (request.getRole() == null) {
+            throw new IllegalArgumentException("Role is required");
+        }
+        if (request.getRole() == Role.SUPER_ADMIN) {
+            throw new IllegalArgumentException("Role SUPER_ADMIN cannot be assigned");
+        }
+        return apply(caller, organizationId, request, ChangeType.UPDATED,
+                ids -> userRepository.updateRoleByIds(organizationId, ids, request.getRole()));
+    }
+
+    /**
+     * Flags the users so they must set a new password on their next login, and signs them out everywhere.
+     */
+    @Transactional
+    public BulkOperationResult forcePasswordReset(CurrentPrincipal caller, Long organizationId, BulkUserRequest request) {
+        return apply(caller, organizationId, request, ChangeType.UPDATED,
+                ids -> userRepository.markFirstLoginByIds(organizationId, ids));
+    }
+
+    @Transactional
+    public BulkOperationResult delete(CurrentPrincipal caller, Long organizationId, BulkUserRequest request) {
+        return apply(caller, organizationId, request, ChangeType.DELETED,
+                ids -> userRepository.deleteByIds(organizationId, ids));
+    }
+
+    // Runs the statement once per batch of at most maxIds users, so no statement outgrows the bind-parameter limit
+    private BulkOperationResult apply(CurrentPrincipal caller, Long organizationId, BulkUserRequest request,
+                                      ChangeType changeType, ToIntFunction<List<Long>> statement) {
+        validate(request);
+        int affected = 0;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            affected += applyBatch(caller, organizationId, changeType, statement, request.getFilterRole() != null
+                    ? userRepository.findSummariesByOrganizationIdAndRoleAndIdIn(organizationId, request.getFilterRole(), request.getIds())
+                    : userRepository.findSummariesByOrganizationIdAndIdIn(organizationId, request.getIds()));
+            return new BulkOperationResult(affected);
+        }
+
+        // A role filter alone may match any number of users: seek through them by id one page at a time
+        Long afterId = 0L;
+        List<UserSummary> page;
+        do {
+            page = userRepository.findSummariesByOrganizationIdAndRoleAfter(
+                    organizationId, request.getFilterRole(), afterId, Limit.of(maxIds));
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+                affected += applyBatch(caller, organizationId, changeType, statement, page);
+            }
+        } while (page.size() == maxIds);
+        return new BulkOperationResult(affected);
+    }
+
+    private int applyBatch(CurrentPrincipal caller, Long organizationId, ChangeType changeType,
+                           ToIntFunction<List<Long>> statement, List<UserSummary> users) {
+        // An admin never demotes, deletes or signs out their own account by matching their own selection.
+        // Superadmins live in a separate table, so their id says nothing about the organization's users.
+        List<UserSummary> targets = caller.isSuperAdmin() ? users : users.stream()
+                .filter(user -> !user.id().equals(caller.userId()))
+                .toList();
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = targets.stream().map(UserSummary::id).toList();
+        int affected = statement.applyAsInt(ids);
+        eventPublisher.publishEvent(DirectoryChangeEvent.users(changeType, organizationId, ids));
+        revokeSessions(targets);
+        return affected;
+    }
+
+    private void validate(BulkUserRequest request) {
+        List<Long> ids = request.getIds();
+        boolean hasIds = ids != null && !ids.isEmpty();
+        if (!hasIds && request.getFilterRole() == null) {
+            // An empty selection must never mean "everyone in the organization"
+            throw new IllegalArgumentException("Either ids or filterRole is required");
+        }
+        if (hasIds && ids.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids per request");
+        }
+    }
+
+    private void revokeSessions(List<UserSummary> users) {
+        users.forEach(user -> refreshTokenService.revokeAllSessions(user.email()));
+    }
+}
@@ -0,0 +1,119 @@
+package org.hr.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.enums.DataFormat;
+import org.hr.platform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Writes the user directory row by row from a database cursor, so memory use does not grow
+ * with the number of users. Rows are read as {@link UserSummary} projections, which the
+ * persistence context never tracks, so there is nothing to detach along the way.
+ */
+@Service
+public class UserExportService {
+
+    private static final String CSV_HEADER = "id,email,role,firstLogin,organizationId,organizationName";
+
+    // Push what has been written to the client every so often instead of buffering the whole export
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMillis;
+
+    public UserExportService(UserRepository userRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.export.timeout-ms:600000}") long timeoutMillis) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        // PostgreSQL only honours the fetch size (a server-side cursor) inside a transaction
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * How long an export request may run; applied to the export endpoints only.
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Exports every user, or only those of {@code organizationId} when it is not null.
+     */
+    public void export(Long organizationId, DataFormat format, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<UserSummary> users = organizationId != null
+                    ? userRepository.streamSummariesByOrganizationId(organizationId)
+                    : userRepository.streamAllSummaries()) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                write(users, format, writer);
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(Stream<UserSummary> users, DataFormat format, Writer writer) throws IOException {
+        if (format == DataFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        int rows = 0;
+        for (UserSummary user : (Iterable<UserSummary>) users::iterator) {
+            if (format == DataFormat.CSV) {
+                writeCsvRow(user, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(user));
+                writer.write('\n');
+            }
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    private static void writeCsvRow(UserSummary user, Writer writer) throws IOException {
+        writer.write(String.valueOf(user.id()));
+        writer.write(',');
+        writer.write(csv(user.email()));
+        writer.write(',');
+        writer.write(user.role() != null ? user.role().name() : "");
+        writer.write(',');
+        writer.write(String.valueOf(user.firstLogin()));
+        writer.write(',');
+        writer.write(user.organizationId() != null ? String.valueOf(user.organizationId()) : "");
+        writer.write(',');
+        writer.write(csv(user.organizationName()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting: only when the value contains a delimiter, quote or line break
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
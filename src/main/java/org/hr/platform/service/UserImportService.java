@@ -0,0 +1,347 @@
+package org.hr.platform.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hr.platform.dto.CreateUserRequest;
+import org.hr.platform.dto.ImportResult;
+import org.hr.platform.enums.DataFormat;
+import org.hr.platform.enums.Role;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.model.Organization;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk-creates users in one organization from a CSV ({@code email,password,role}) or NDJSON upload.
+ * <p>
+ * The file is processed in chunks: rows are validated, checked against existing emails with one
+ * set-based query, hashed in parallel on a dedicated pool (separate from the login hashing pool
+ * so an import can't starve logins) and inserted with a single JDBC batch. A bad row is reported
+ * in the {@link ImportResult} and skipped; it never fails the rest of the file.
+ */
+@Service
+public class UserImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (email, password, role, first_login, organization_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final OrganizationRepository organizationRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor hashingPool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public UserImportService(UserRepository userRepository,
+                             OrganizationRepository organizationRepository,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.import.hashing-threads:0}") int hashingThreads,
+                             @Value("${app.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.organizationRepository = organizationRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = maxReportedErrors;
+
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Once the queue is full the importing request thread hashes the row itself, which throttles the upload
+        this.hashingPool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.chunkSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "import-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+
+        this.importedRows = meterRegistry.counter("users.import.rows", "outcome", "imported");
+        this.failedRows = meterRegistry.counter("users.import.rows", "outcome", "failed");
+    }
+
+    public ImportResult importUsers(Long organizationId, DataFormat format, InputStream in) {
+        Organization organization = organizationRepository.findById(organizationId)
+                .orElseThrow(() -> new RuntimeException("Organization not found"));
+        if (organization.isDeleting()) {
+            throw new RuntimeException("Organization is being deleted");
+        }
+
+        Progress progress = new Progress();
+        Set<String> seenEmails = new HashSet<>();
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == DataFormat.CSV && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    continue;
+                }
+                try {
+                    CreateUserRequest request = format == DataFormat.CSV
+                            ? parseCsvRow(line, csvColumns)
+                            : objectMapper.readValue(line, CreateUserRequest.class);
+                    chunk.add(new ParsedRow(lineNumber, request));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    progress.fail(lineNumber, null, "Malformed row");
+                }
+                if (chunk.size() >= chunkSize) {
+                    importChunk(organizationId, chunk, seenEmails, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(organizationId, chunk, seenEmails, progress);
+        }
+        return new ImportResult(progress.imported, progress.failed, progress.errors, progress.failed > progress.errors.size());
+    }
+
+    private void importChunk(Long organizationId, List<ParsedRow> rows, Set<String> seenEmails, Progress progress) {
+        List<ParsedRow> valid = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            CreateUserRequest request = row.request();
+            if (request.getEmail() != null) {
+                request.setEmail(request.getEmail().trim());
+            }
+            if (request.getRole() == null) {
+                request.setRole(Role.EMPLOYEE);
+            }
+            String error = validate(request);
+            if (error == null && !seenEmails.add(request.getEmail())) {
+                error = "Duplicate email in file";
+            }
+            if (error != null) {
+                progress.fail(row.line(), request.getEmail(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // One query for the whole chunk instead of a findByEmail per row
+        Set<String> existing = userRepository.findExistingEmails(valid.stream().map(row -> row.request().getEmail()).toList());
+        List<ParsedRow> fresh = new ArrayList<>(valid.size());
+        for (ParsedRow row : valid) {
+            if (existing.contains(row.request().getEmail())) {
+                progress.fail(row.line(), row.request().getEmail(), "User with this email already exists");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<Object[]>> hashed = fresh.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> new Object[]{
+                        row.request().getEmail(),
+                        passwordEncoder.encode(row.request().getPassword()),
+                        row.request().getRole().name(),
+                        true,
+                        organizationId
+                }, hashingPool))
+                .toList();
+        List<Object[]> params = hashed.stream().map(CompletableFuture::join).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(organizationId, params));
+            progress.succeed(params.size());
+        } catch (DataIntegrityViolationException e) {
+            // Usually another writer took one of the emails since the check; find the offending rows one by one
+            for (int i = 0; i < params.size(); i++) {
+                Object[] row = params.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(organizationId, List.<Object[]>of(row)));
+                    progress.succeed(1);
+                } catch (DataIntegrityViolationException rowError) {
+                    progress.fail(fresh.get(i).line(), fresh.get(i).request().getEmail(), rejection(rowError));
+                }
+            }
+        }
+    }
+
+    // Email is the only unique column a row supplies; anything else is reported with the database's own reason
+    private static String rejection(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return "User with this email already exists";
+        }
+        String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return reason != null ? "Rejected by the database: " + reason.lines().findFirst().orElse("").trim() : "Rejected by the database";
+    }
+
+    // The JDBC batch doesn't return generated ids, so they are read back by email for the event,
+    // which has to be published inside the transaction for the change log to commit with the rows
+    private void insert(Long organizationId, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        List<Long> ids = userRepository.findIdsByEmails(rows.stream().map(row -> (String) row[0]).toList());
+        eventPublisher.publishEvent(DirectoryChangeEvent.users(ChangeType.CREATED, organizationId, ids));
+    }
+
+    private String validate(CreateUserRequest request) {
+        if (request.getRole() == Role.SUPER_ADMIN) {
+            return "Role SUPER_ADMIN cannot be imported";
+        }
+        Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.iterator().next().getMessage();
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("password")) {
+            throw new IllegalArgumentException("CSV header must contain email and password columns");
+        }
+        return columns;
+    }
+
+    private static CreateUserRequest parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        CreateUserRequest request = new CreateUserRequest();
+        request.setEmail(column(values, columns, "email"));
+        request.setPassword(column(values, columns, "password"));
+        String role = column(values, columns, "role");
+        if (role != null && !role.isBlank()) {
+            request.setRole(Role.valueOf(role.trim().toUpperCase(Locale.ROOT)));
+        }
+        return request;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private record ParsedRow(long line, CreateUserRequest request) {
+    }
+
+    private class Progress {
+        private long imported;
+        private long failed;
+        private final List<ImportResult.RowError> errors = new ArrayList<>();
+
+        void succeed(int rows) {
+            imported += rows;
+            importedRows.increment(rows);
+        }
+
+        void fail(long line, String email, String message) {
+            failed++;
+            failedRows.increment();
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportResult.RowError(line, email, message));
+            }
+        }
+    }
+}
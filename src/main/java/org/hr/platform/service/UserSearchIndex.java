@@ -0,0 +1,350 @@
+package org.hr.platform.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hr.platform.dto.UserDto;
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead search over one organization's users, by email prefix and by substring.
+ * <p>
+ * Each organization gets its own in-memory index, built from the database on its first search
+ * and kept current by committed {@link DirectoryChangeEvent}s. Events only reach the instance
+ * that published them, so every index searched since its last build is also rebuilt on
+ * {@code app.user-search.rebuild-interval-ms} to pick up changes made through another instance; the
+ * replacement is built aside and swapped in, so searches never wait for it. Indexes nobody searched for
+ * {@code app.user-search.idle-eviction-ms} are dropped. Users have no name columns, so the email
+ * is the only searchable text; substring matching still finds "smith" in "jane.smith@corp.com".
+ */
+@Component
+public class UserSearchIndex {
+
+    // Past this many ids, re-reading them costs more than rebuilding the index on the next search
+    private static final int MAX_IDS_PER_REFRESH = 1000;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final long idleEvictionMillis;
+    private final Map<Long, OrgIndex> indexes = new ConcurrentHashMap<>();
+
+    private final Timer searchTimer;
+    private final Counter builds;
+
+    public UserSearchIndex(UserRepository userRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.user-search.default-limit:20}") int defaultLimit,
+                           @Value("${app.user-search.max-limit:50}") int maxLimit,
+                           @Value("${app.user-search.idle-eviction-ms:1800000}") long idleEvictionMillis) {
+        this.userRepository = userRepository;
+        // Builds and refreshes read the primary in their own transaction, also when called after commit
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.idleEvictionMillis = idleEvictionMillis;
+
+        this.searchTimer = Timer.builder("users.search").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.builds = meterRegistry.counter("users.search.index.builds");
+        Gauge.builder("users.search.index.organizations", indexes, Map::size).register(meterRegistry);
+    }
+
+    public List<UserDto> search(Long organizationId, String query, Integer limit) {
+        String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int max = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+
+        return searchTimer.record(() -> {
+            OrgIndex index = indexes.computeIfAbsent(organizationId, id -> new OrgIndex());
+            index.lastAccessMillis = System.currentTimeMillis();
+            ensureBuilt(organizationId, index);
+            return index.search(normalized, max).stream().map(UserDto::from).toList();
+        });
+    }
+
+    // Ahead of DirectoryVersions, so a fresh ETag never goes out with stale search results
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDirectoryChange(DirectoryChangeEvent event) {
+        OrgIndex index = event.organizationId() != null ? indexes.get(event.organizationId()) : null;
+        if (index == null) {
+            return;
+        }
+        if (event.entity() == DirectoryChangeEvent.Entity.ORGANIZATION) {
+            if (event.changeType() == DirectoryChangeEvent.ChangeType.DELETED) {
+                indexes.remove(event.organizationId());
+            }
+            return;
+        }
+        if (event.ids().isEmpty() || event.ids().size() > MAX_IDS_PER_REFRESH) {
+            index.invalidate();
+            return;
+        }
+
+        List<UserSummary> current = event.changeType() == DirectoryChangeEvent.ChangeType.DELETED
+                ? List.of()
+                : transactionTemplate.execute(status ->
+                        userRepository.findSummariesByOrganizationIdAndIdIn(event.organizationId(), event.ids()));
+        List<UserSummary> changed = current != null ? current : List.of();
+        index.apply(event.ids(), changed);
+        // A periodic rebuild may have swapped in a fresh index from a snapshot taken before this change
+        OrgIndex replaced = indexes.get(event.organizationId());
+        if (replaced != null && replaced != index) {
+            replaced.apply(event.ids(), changed);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.user-search.rebuild-interval-ms:300000}",
+            fixedDelayString = "${app.user-search.rebuild-interval-ms:300000}")
+    public void rebuildAll() {
+        indexes.forEach((organizationId, index) -> {
+            // Unbuilt indexes rebuild on their next search; idle ones can wait until they are searched again
+            if (!index.built || index.lastAccessMillis < index.builtAtMillis) {
+                return;
+            }
+            // Build the replacement without holding the lock, so searches keep using the old index meanwhile
+            long version = index.version;
+            OrgIndex fresh = new OrgIndex();
+            fresh.builtAtMillis = System.currentTimeMillis();
+            fresh.lastAccessMillis = index.lastAccessMillis;
+            List<UserSummary> users = transactionTemplate.execute(status ->
+                    userRepository.findSummariesByOrganizationId(organizationId));
+            fresh.rebuild(users != null ? users : List.of());
+            builds.increment();
+
+            index.lock.writeLock().lock();
+            try {
+                // A change applied meanwhile may be missing from the snapshot; keep the old index until next time
+                if (index.version == version) {
+                    indexes.replace(organizationId, index, fresh);
+                }
+            } finally {
+                index.lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-search.idle-eviction-ms:1800000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        indexes.values().removeIf(index -> index.lastAccessMillis < cutoff);
+    }
+
+    private void ensureBuilt(Long organizationId, OrgIndex index) {
+        if (index.built) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            if (!index.built) {
+                index.builtAtMillis = System.currentTimeMillis();
+                List<UserSummary> users = transactionTemplate.execute(status ->
+                        userRepository.findSummariesByOrganizationId(organizationId));
+                index.rebuild(users != null ? users : List.of());
+                builds.increment();
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index of one organization. Every user occupies a slot; an email prefix is a range of a sorted
+     * map, and each trigram of an email points to an ascending list of slots. Removed users leave an
+     * empty slot behind until enough of them accumulate to be worth compacting.
+     */
+    static class OrgIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile boolean built;
+        private volatile long lastAccessMillis = System.currentTimeMillis();
+        private volatile long builtAtMillis;
+        private volatile long version;
+
+        private UserSummary[] slots = new UserSummary[16];
+        private String[] emails = new String[16];
+        private int slotCount;
+        private int emptySlots;
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final TreeMap<String, Integer> slotByEmail = new TreeMap<>();
+        private final Map<Long, SlotList> slotsByTrigram = new HashMap<>();
+
+        List<UserSummary> search(String query, int limit) {
+            lock.readLock().lock();
+            try {
+                List<UserSummary> results = new ArrayList<>(limit);
+                Set<Integer> seen = new HashSet<>();
+
+                // Prefix matches first, in email order
+                NavigableMap<String, Integer> prefixed = slotByEmail.subMap(query, true, query + Character.MAX_VALUE, false);
+                for (Integer slot : prefixed.values()) {
+                    if (results.size() >= limit) {
+                        return results;
+                    }
+                    results.add(slots[slot]);
+                    seen.add(slot);
+                }
+
+                // Then substrings: walk the rarest trigram's slots, or every slot for 1-2 character queries
+                SlotList candidates = query.length() >= 3 ? rarestTrigram(query) : null;
+                if (query.length() >= 3 && candidates == null) {
+                    return results;
+                }
+                int count = candidates != null ? candidates.size : slotCount;
+                for (int i = 0; i < count && results.size() < limit; i++) {
+                    int slot = candidates != null ? candidates.slots[i] : i;
+                    if (slots[slot] != null && !seen.contains(slot) && emails[slot].contains(query)) {
+                        results.add(slots[slot]);
+                    }
+                }
+                return results;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void apply(List<Long> changedIds, List<UserSummary> current) {
+            lock.writeLock().lock();
+            try {
+                if (!built) {
+                    // The next search rebuilds from the database, which already has this change
+                    return;
+                }
+                version++;
+                changedIds.forEach(this::remove);
+                current.forEach(this::add);
+                if (emptySlots > 1024 && emptySlots > slotCount / 3) {
+                    rebuild(live());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void invalidate() {
+            lock.writeLock().lock();
+            try {
+                version++;
+                built = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Callers hold the write lock, or own an index nobody else can see yet
+        void rebuild(List<UserSummary> users) {
+            slots = new UserSummary[Math.max(16, users.size())];
+            emails = new String[slots.length];
+            slotCount = 0;
+            emptySlots = 0;
+            slotById.clear();
+            slotByEmail.clear();
+            slotsByTrigram.clear();
+            users.forEach(this::add);
+            built = true;
+        }
+
+        private List<UserSummary> live() {
+            List<UserSummary> users = new ArrayList<>(slotCount - emptySlots);
+            for (int i = 0; i < slotCount; i++) {
+                if (slots[i] != null) {
+                    users.add(slots[i]);
+                }
+            }
+            return users;
+        }
+
+        private void add(UserSummary user) {
+            remove(user.id());
+            if (slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, slotCount * 2);
+                emails = Arrays.copyOf(emails, slotCount * 2);
+            }
+            int slot = slotCount++;
+            String email = user.email().toLowerCase(Locale.ROOT);
+            slots[slot] = user;
+            emails[slot] = email;
+            slotById.put(user.id(), slot);
+            slotByEmail.put(email, slot);
+            for (long trigram : trigrams(email)) {
+                // Slots are handed out in increasing order, so every list stays sorted
+                slotsByTrigram.computeIfAbsent(trigram, t -> new SlotList()).add(slot);
+            }
+        }
+
+        private void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            slotByEmail.remove(emails[slot]);
+            slots[slot] = null;
+            emails[slot] = null;
+            emptySlots++;
+        }
+
+        private SlotList rarestTrigram(String query) {
+            SlotList rarest = null;
+            for (long trigram : trigrams(query)) {
+                SlotList list = slotsByTrigram.get(trigram);
+                if (list == null) {
+                    return null;
+                }
+                if (rarest == null || list.size < rarest.size) {
+                    rarest = list;
+                }
+            }
+            return rarest;
+        }
+
+        // Three UTF-16 chars packed into one long, so the map needs no String per trigram
+        private static Set<Long> trigrams(String text) {
+            Set<Long> trigrams = new HashSet<>();
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+            }
+            return trigrams;
+        }
+    }
+
+    private static class SlotList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
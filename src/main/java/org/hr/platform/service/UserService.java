@@ -3,19 +3,32 @@ package org.hr.platform.service;
 import lombok.RequiredArgsConstructor;
 import org.hr.platform.dto.ChangePasswordRequest;
 import org.hr.platform.dto.CreateUserRequest;
+import org.hr.platform.dto.CursorPage;
+import org.hr.platform.dto.OrganizationDto;
+import org.hr.platform.dto.SessionDto;
 import org.hr.platform.dto.UpdateUserRequest;
 import org.hr.platform.dto.UserDto;
-import org.hr.platform.model.Organization;
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
 import org.hr.platform.enums.Role;
 import org.hr.platform.model.User;
 import org.hr.platform.repository.OrganizationRepository;
 import org.hr.platform.repository.UserRepository;
-import org.hr.platform.util.SecurityUtil;
+import org.hr.platform.security.CurrentPrincipal;
+import org.hr.platform.security.PasswordHashingExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.stream.Collectors.toList;
 
@@ -25,73 +38,71 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final OrganizationRepository organizationRepository;
+    private final OrganizationCatalog organizationCatalog;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
 
-    public List<UserDto> getAllUsersForCurrentOrg() {
-        User current = getCurrentUser();
-        return userRepository.findByOrganizationId(current.getOrganization().getId())
-                .stream()
-                .map(UserDto::from)
-                .collect(toList());
-    }
+    @Value("${app.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-size:500}")
+    private int maxPageSize;
 
-    public UserDto getMyProfile() {
-        return UserDto.from(getCurrentUser());
+    @Transactional(readOnly = true)
+    public List<UserDto> getAllUsersForCurrentOrg(CurrentPrincipal principal) {
+        return getUsersInOrg(principal.organizationId());
     }
 
-    public UserDto createUser(CreateUserRequest request) {
-        User current = getCurrentUser();
+    @Transactional(readOnly = true)
+    public UserDto getMyProfile(CurrentPrincipal principal) {
+        return userRepository.findSummaryById(principal.userId())
+                .map(UserDto::from)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
 
-        if (current.getRole() != Role.ADMIN) {
+    @Transactional
+    public UserDto createUser(CurrentPrincipal principal, CreateUserRequest request) {
+        if (!Role.ADMIN.name().equals(principal.role())) {
             throw new AccessDeniedException("Only Admins can create users.");
         }
 
-        Organization org = current.getOrganization();
+        OrganizationDto org = organizationCatalog.findById(principal.organizationId())
+                .orElseThrow(() -> new RuntimeException("Organization not found"));
 
         User user = User.builder()
                 .email(request.getEmail())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .role(request.getRole())
-                .organization(org)
+                .organization(organizationRepository.getReferenceById(org.getId()))
                 .firstLogin(true)
                 .build();
 
         userRepository.save(user);
-        return UserDto.from(user);
-    }
-
-    public User getCurrentUser() {
-        String email = SecurityUtil.getCurrentUserEmail();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.CREATED, org.getId(), user.getId()));
+        return UserDto.from(user, org);
     }
 
-    public List<UserDto> getUsersInOrg(String adminEmail) {
-        User admin = userRepository.findByEmail(adminEmail)
-                .orElseThrow(() -> new RuntimeException("Admin not found"));
-
-        return userRepository.findByOrganizationId(admin.getOrganization().getId())
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsersInOrg(Long organizationId) {
+        return userRepository.findSummariesByOrganizationId(organizationId)
                 .stream()
                 .map(UserDto::from)
                 .collect(toList());
     }
 
-    public void updateUser(String adminEmail, Long userId, UpdateUserRequest request) {
-        User admin = userRepository.findByEmail(adminEmail)
-                .orElseThrow(() -> new RuntimeException("Admin not found"));
-
-        if (admin.getRole() != Role.ADMIN) {
-            throw new AccessDeniedException("Only Admins can update users");
-        }
-
-        User user = userRepository.findById(userId)
+    /**
+     * Updates a user of {@code organizationId}. The organization is part of the lookup, so a user
+     * of another organization is reported as not found without ever being loaded.
+     */
+    @Transactional
+    public void updateUser(Long organizationId, Long userId, UpdateUserRequest request) {
+        User user = userRepository.findByIdAndOrganizationId(userId, organizationId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Ensure user belongs to same organization
-        if (!user.getOrganization().getId().equals(admin.getOrganization().getId())) {
-            throw new AccessDeniedException("Cannot update user from different organization");
-        }
-
+        String previousEmail = user.getEmail();
         if (request.getEmail() != null) {
             user.setEmail(request.getEmail());
         }
@@ -104,48 +115,74 @@ public class UserService {
         }
 
         userRepository.save(user);
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.UPDATED, organizationId, userId));
+        refreshTokenService.revokeAllSessions(previousEmail);
     }
 
-    public void deleteUser(String adminEmail, Long userId) {
-        User admin = userRepository.findByEmail(adminEmail)
-                .orElseThrow(() -> new RuntimeException("Admin not found"));
-
-        if (admin.getRole() != Role.ADMIN) {
-            throw new AccessDeniedException("Only Admins can delete users");
-        }
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Ensure user belongs to same organization
-        if (!user.getOrganization().getId().equals(admin.getOrganization().getId())) {
-            throw new AccessDeniedException("Cannot delete user from different organization");
-        }
-
+    @Transactional
+    public void deleteUser(CurrentPrincipal admin, Long userId) {
         // Prevent admin from deleting themselves
-        if (user.getId().equals(admin.getId())) {
+        if (userId.equals(admin.userId())) {
             throw new AccessDeniedException("Cannot delete yourself");
         }
 
-        userRepository.delete(user);
+        String email = userRepository.findEmailByIdAndOrganizationId(userId, admin.organizationId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        userRepository.deleteByIds(admin.organizationId(), List.of(userId));
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.DELETED, admin.organizationId(), userId));
+        refreshTokenService.revokeAllSessions(email);
     }
 
-    // Methods expected by ManagerController
-    public List<UserDto> getEmployeesInOrg(String managerEmail) {
-        User manager = userRepository.findByEmail(managerEmail)
-                .orElseThrow(() -> new RuntimeException("Manager not found"));
+    /**
+     * Keyset-paginated user listing ordered by id. {@code organizationId} and {@code role} are optional filters.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> findUsersPage(Long organizationId, Role role, String cursor, Integer size) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to learn whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<UserSummary> users;
+        if (organizationId != null && role != null) {
+            users = userRepository.findSummariesByOrganizationIdAndRoleAfter(organizationId, role, afterId, limit);
+        } else if (organizationId != null) {
+            users = userRepository.findSummariesByOrganizationIdAfter(organizationId, afterId, limit);
+        } else if (role != null) {
+            users = userRepository.findSummariesByRoleAfter(role, afterId, limit);
+        } else {
+            users = userRepository.findSummariesAfter(afterId, limit);
+        }
 
-        return userRepository.findByOrganizationIdAndRole(manager.getOrganization().getId(), Role.EMPLOYEE)
-                .stream()
+        boolean hasMore = users.size() > pageSize;
+        List<UserDto> items = users.stream()
+                .limit(pageSize)
                 .map(UserDto::from)
                 .collect(toList());
+        String nextCursor = hasMore ? CursorPage.encodeCursor(items.get(items.size() - 1).getId()) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    // Methods expected by ManagerController
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getEmployeesInOrg(CurrentPrincipal manager, String cursor, Integer size) {
+        return findUsersPage(manager.organizationId(), Role.EMPLOYEE, cursor, size);
     }
 
     // Methods expected by UserController
-    public UserDto getProfile(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return UserDto.from(user);
+    @Transactional(readOnly = true)
+    public UserDto getProfile(CurrentPrincipal principal) {
+        return getMyProfile(principal);
+    }
+
+    /**
+     * Runs {@link #changePassword(String, ChangePasswordRequest)} on the password hashing pool.
+     */
+    public CompletableFuture<Void> changePasswordAsync(String email, ChangePasswordRequest request) {
+        return passwordHashingExecutor.submit(() -> {
+            changePassword(email, request);
+            return null;
+        });
     }
 
     public void changePassword(String email, ChangePasswordRequest request) {
@@ -158,6 +195,18 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setFirstLogin(false);
-        userRepository.save(user);
+        // Hashing stays outside; the write and its change-log entry commit together
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.save(user);
+            eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.UPDATED, user.getOrganization().getId(), user.getId()));
+        });
+        refreshTokenService.revokeAllSessions(email);
+    }
+
+    public List<SessionDto> getActiveSessions(String email) {
+        return refreshTokenService.getActiveSessions(email)
+                .stream()
+                .map(SessionDto::from)
+                .collect(toList());
     }
 }
@@ -0,0 +1,130 @@
+package org.hr.platform.store;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent key/value store where every entry carries its own expiry.
+ * <p>
+ * Keys are also filed into coarse expiry buckets ordered by time, so purging only
+ * visits buckets that have fully elapsed instead of scanning the whole map. When the
+ * hard cap is reached, the entries closest to expiry are evicted first.
+ */
+public class ExpiringTokenStore<V> {
+
+    private final long bucketMillis;
+    private final int maxEntries;
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExpiringTokenStore(long bucketMillis, int maxEntries) {
+        if (bucketMillis <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("bucketMillis and maxEntries must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public void put(String key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        while (entries.size() >= maxEntries && evictSoonestExpiring()) {
+            // keep evicting until there is room
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+        buckets.computeIfAbsent(expiresAtMillis / bucketMillis, b -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    /**
+     * Returns the live value for the key, or null when it is absent or has expired.
+     */
+    public V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Atomically removes the entry; only one concurrent caller can receive a given live entry.
+     */
+    public Entry<V> remove(String key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Drops every entry in buckets that have fully elapsed. Returns the number of entries removed.
+     */
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+
+        Map.Entry<Long, Set<String>> bucket;
+        while ((bucket = buckets.firstEntry()) != null && (bucket.getKey() + 1) * bucketMillis <= now) {
+            buckets.remove(bucket.getKey(), bucket.getValue());
+            for (String key : bucket.getValue()) {
+                // The key may have been re-stored with a later expiry since it was filed here
+                Entry<V> entry = entries.get(key);
+                if (entry != null && entry.isExpired(now) && entries.remove(key, entry)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    private boolean evictSoonestExpiring() {
+        for (Map.Entry<Long, Set<String>> bucket : buckets.entrySet()) {
+            Iterator<String> keys = bucket.getValue().iterator();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                keys.remove();
+                // Skip keys re-stored with a different expiry since they were filed here; they live in a later bucket
+                Entry<V> entry = entries.get(key);
+                if (entry != null && entry.expiresAtMillis() / bucketMillis == bucket.getKey()
+                        && entries.remove(key, entry)) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+            }
+            // Empty buckets are left for purgeExpired so a concurrent put can't file a key into a detached set
+        }
+        return false;
+    }
+
+    public record Entry<V>(V value, long expiresAtMillis) {
+
+        boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+}
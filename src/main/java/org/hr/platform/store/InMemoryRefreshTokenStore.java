@@ -0,0 +1,91 @@
+package org.hr.platform.store;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node refresh token store kept in JVM memory. Tokens, revocations and generations do not survive a restart.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.refresh-token.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final ExpiringTokenStore<RefreshTokenRecord> refreshTokens;
+    private final ExpiringTokenStore<Boolean> revokedTokens;
+    // Not capped: evicting a generation early would bring revoked tokens back
+    private final Map<String, Generation> generations = new ConcurrentHashMap<>();
+
+    public InMemoryRefreshTokenStore(MeterRegistry meterRegistry,
+                                     @Value("${auth.refresh-token.max-entries:100000}") int maxRefreshTokens,
+                                     @Value("${auth.token-blacklist.max-entries:100000}") int maxRevokedTokens,
+                                     @Value("${auth.token-store.bucket-ms:60000}") long bucketMillis) {
+        this.refreshTokens = new ExpiringTokenStore<>(bucketMillis, maxRefreshTokens);
+        this.revokedTokens = new ExpiringTokenStore<>(bucketMillis, maxRevokedTokens);
+
+        Gauge.builder("auth.refresh.tokens.live", refreshTokens, ExpiringTokenStore::size)
+                .register(meterRegistry);
+        Gauge.builder("auth.token.blacklist.live", revokedTokens, ExpiringTokenStore::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.refresh.tokens.evictions", refreshTokens, ExpiringTokenStore::evictionCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.token.blacklist.evictions", revokedTokens, ExpiringTokenStore::evictionCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(String token, RefreshTokenRecord record) {
+        refreshTokens.put(token, record, record.expiresAtMillis());
+    }
+
+    @Override
+    public RefreshTokenRecord find(String token) {
+        return refreshTokens.get(token);
+    }
+
+    @Override
+    public RefreshTokenRecord consume(String token) {
+        ExpiringTokenStore.Entry<RefreshTokenRecord> removed = refreshTokens.remove(token);
+        return removed != null ? removed.value() : null;
+    }
+
+    @Override
+    public void revoke(String token, long expiresAtMillis) {
+        revokedTokens.put(token, Boolean.TRUE, expiresAtMillis);
+    }
+
+    @Override
+    public boolean isRevoked(String token) {
+        return revokedTokens.containsKey(token);
+    }
+
+    @Override
+    public long currentGeneration(String email) {
+        Generation generation = generations.get(email);
+        return generation != null ? generation.value() : 0;
+    }
+
+    @Override
+    public long advanceGeneration(String email, long retainUntilMillis) {
+        long now = System.currentTimeMillis();
+        return generations.compute(email, (e, previous) -> new Generation(
+                Math.max(previous != null ? previous.value() + 1 : 0, now), retainUntilMillis)).value();
+    }
+
+    @Override
+    public void purgeExpired() {
+        refreshTokens.purgeExpired();
+        revokedTokens.purgeExpired();
+        long now = System.currentTimeMillis();
+        generations.values().removeIf(generation -> generation.retainUntilMillis() <= now);
+    }
+
+    private record Generation(long value, long retainUntilMillis) {
+    }
+}
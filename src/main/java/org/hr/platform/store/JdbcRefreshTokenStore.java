@@ -0,0 +1,249 @@
+package org.hr.platform.store;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.hr.platform.util.TokenHasher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Refresh token store shared by every replica through the application datasource.
+ * <p>
+ * Only SHA-256 hashes of tokens are persisted. Revocation lookups run on every authenticated
+ * request, so both answers are kept in small local near-caches. A revocation never goes away
+ * before its expiry, so a cached "revoked" answer can't become wrong on another node; a cached
+ * "not revoked" answer is only trusted for {@code negative-cache-ms}, which bounds how long a
+ * logout on one node takes to reach the others. Session generations are persisted as well, so
+ * revoking an account's sessions holds across restarts and replicas; the per-request check reads
+ * them through a near-cache with the same lifetime.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.refresh-token.store", havingValue = "jdbc")
+public class JdbcRefreshTokenStore implements RefreshTokenStore {
+
+    // GREATEST keeps generations increasing even when node clocks disagree
+    private static final String ADVANCE_GENERATION_POSTGRES = """
+            INSERT INTO session_generations (email, generation, expires_at) VALUES (?, ?, ?)
+            ON CONFLICT (email) DO UPDATE SET
+                generation = GREATEST(session_generations.generation + 1, EXCLUDED.generation),
+                expires_at = GREATEST(session_generations.expires_at, EXCLUDED.expires_at)""";
+    // H2 only accepts ON CONFLICT DO NOTHING, so embedded databases get the same upsert as a MERGE
+    private static final String ADVANCE_GENERATION_MERGE = """
+            MERGE INTO session_generations g
+            USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS BIGINT), CAST(? AS BIGINT))) AS s (email, generation, expires_at)
+            ON g.email = s.email
+            WHEN MATCHED THEN UPDATE SET
+                generation = GREATEST(g.generation + 1, s.generation),
+                expires_at = GREATEST(g.expires_at, s.expires_at)
+            WHEN NOT MATCHED THEN INSERT (email, generation, expires_at)
+                VALUES (s.email, s.generation, s.expires_at)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int cleanupBatchSize;
+    private final ExpiringTokenStore<Boolean> revokedNearCache;
+    private final ExpiringTokenStore<Boolean> notRevokedNearCache;
+    private final ExpiringTokenStore<Long> generationNearCache;
+    private final long negativeCacheMillis;
+    private String advanceGenerationSql = ADVANCE_GENERATION_POSTGRES;
+
+    private final Counter nearCacheHits;
+    private final Counter negativeNearCacheHits;
+
+    public JdbcRefreshTokenStore(JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${auth.refresh-token.jdbc.near-cache-size:10000}") int nearCacheSize,
+                                 @Value("${auth.refresh-token.jdbc.negative-cache-ms:5000}") long negativeCacheMillis,
+                                 @Value("${auth.refresh-token.jdbc.cleanup-batch-size:1000}") int cleanupBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cleanupBatchSize = cleanupBatchSize;
+        this.negativeCacheMillis = negativeCacheMillis;
+        this.revokedNearCache = nearCacheSize > 0 ? new ExpiringTokenStore<>(60_000, nearCacheSize) : null;
+        this.notRevokedNearCache = nearCacheSize > 0 && negativeCacheMillis > 0
+                ? new ExpiringTokenStore<>(Math.max(1000, negativeCacheMillis), nearCacheSize)
+                : null;
+        this.generationNearCache = nearCacheSize > 0 && negativeCacheMillis > 0
+                ? new ExpiringTokenStore<>(Math.max(1000, negativeCacheMillis), nearCacheSize)
+                : null;
+        this.nearCacheHits = meterRegistry.counter("auth.token.revoked.near-cache.hits");
+        this.negativeNearCacheHits = meterRegistry.counter("auth.token.revoked.near-cache.negative-hits");
+    }
+
+    @PostConstruct
+    public void createSchema() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS refresh_tokens (
+                    token_hash VARCHAR(64) PRIMARY KEY,
+                    email VARCHAR(255) NOT NULL,
+                    user_type VARCHAR(20) NOT NULL,
+                    generation BIGINT NOT NULL,
+                    expires_at BIGINT NOT NULL
+                )""");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at)");
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS revoked_tokens (
+                    token_hash VARCHAR(64) PRIMARY KEY,
+                    expires_at BIGINT NOT NULL
+                )""");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at)");
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS session_generations (
+                    email VARCHAR(255) PRIMARY KEY,
+                    generation BIGINT NOT NULL,
+                    expires_at BIGINT NOT NULL
+                )""");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_session_generations_expires_at ON session_generations (expires_at)");
+
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        advanceGenerationSql = "PostgreSQL".equals(product) ? ADVANCE_GENERATION_POSTGRES : ADVANCE_GENERATION_MERGE;
+    }
+
+    @Override
+    public void save(String token, RefreshTokenRecord record) {
+        jdbcTemplate.update(
+                "INSERT INTO refresh_tokens (token_hash, email, user_type, generation, expires_at) VALUES (?, ?, ?, ?, ?)",
+                TokenHasher.sha256(token), record.email(), record.userType(), record.generation(),
+                record.expiresAtMillis()
+        );
+    }
+
+    @Override
+    public RefreshTokenRecord find(String token) {
+        return findByHash(TokenHasher.sha256(token));
+    }
+
+    @Override
+    public RefreshTokenRecord consume(String token) {
+        String tokenHash = TokenHasher.sha256(token);
+        RefreshTokenRecord record = findByHash(tokenHash);
+        if (record == null) {
+            return null;
+        }
+        // The row count decides the winner when several nodes consume the same token
+        int deleted = jdbcTemplate.update("DELETE FROM refresh_tokens WHERE token_hash = ?", tokenHash);
+        return deleted == 1 ? record : null;
+    }
+
+    private RefreshTokenRecord findByHash(String tokenHash) {
+        List<RefreshTokenRecord> records = jdbcTemplate.query(
+                "SELECT email, user_type, generation, expires_at FROM refresh_tokens"
+                        + " WHERE token_hash = ? AND expires_at > ?",
+                (rs, rowNum) -> new RefreshTokenRecord(
+                        rs.getString("email"), rs.getString("user_type"),
+                        rs.getLong("generation"), rs.getLong("expires_at")),
+                tokenHash, System.currentTimeMillis()
+        );
+        return records.isEmpty() ? null : records.get(0);
+    }
+
+    @Override
+    public void revoke(String token, long expiresAtMillis) {
+        String tokenHash = TokenHasher.sha256(token);
+        // Revoking twice is a no-op rather than a constraint violation that would abort the transaction
+        jdbcTemplate.update(
+                "INSERT INTO revoked_tokens (token_hash, expires_at) VALUES (?, ?) ON CONFLICT DO NOTHING",
+                tokenHash, expiresAtMillis
+        );
+        if (revokedNearCache != null) {
+            revokedNearCache.put(tokenHash, Boolean.TRUE, expiresAtMillis);
+        }
+        if (notRevokedNearCache != null) {
+            notRevokedNearCache.remove(tokenHash);
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String token) {
+        String tokenHash = TokenHasher.sha256(token);
+        if (revokedNearCache != null && revokedNearCache.containsKey(tokenHash)) {
+            nearCacheHits.increment();
+            return true;
+        }
+        if (notRevokedNearCache != null && notRevokedNearCache.containsKey(tokenHash)) {
+            negativeNearCacheHits.increment();
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Long> expiries = jdbcTemplate.queryForList(
+                "SELECT expires_at FROM revoked_tokens WHERE token_hash = ? AND expires_at > ?",
+                Long.class, tokenHash, now
+        );
+        if (expiries.isEmpty()) {
+            if (notRevokedNearCache != null) {
+                notRevokedNearCache.put(tokenHash, Boolean.TRUE, now + negativeCacheMillis);
+            }
+            return false;
+        }
+        if (revokedNearCache != null) {
+            revokedNearCache.put(tokenHash, Boolean.TRUE, expiries.get(0));
+        }
+        return true;
+    }
+
+    @Override
+    public long currentGeneration(String email) {
+        List<Long> generations = jdbcTemplate.queryForList(
+                "SELECT generation FROM session_generations WHERE email = ?", Long.class, email);
+        long generation = generations.isEmpty() ? 0 : generations.get(0);
+        cacheGeneration(email, generation);
+        return generation;
+    }
+
+    @Override
+    public long recentGeneration(String email) {
+        if (generationNearCache != null) {
+            Long cached = generationNearCache.get(email);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return currentGeneration(email);
+    }
+
+    @Override
+    public long advanceGeneration(String email, long retainUntilMillis) {
+        // One statement, so a concurrent revocation on another node can't abort the caller's transaction
+        jdbcTemplate.update(advanceGenerationSql, email, System.currentTimeMillis(), retainUntilMillis);
+        return currentGeneration(email);
+    }
+
+    private void cacheGeneration(String email, long generation) {
+        if (generationNearCache != null) {
+            generationNearCache.put(email, generation, System.currentTimeMillis() + negativeCacheMillis);
+        }
+    }
+
+    @Override
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        deleteExpiredInBatches("refresh_tokens", "token_hash", now);
+        deleteExpiredInBatches("revoked_tokens", "token_hash", now);
+        deleteExpiredInBatches("session_generations", "email", now);
+        if (revokedNearCache != null) {
+            revokedNearCache.purgeExpired();
+        }
+        if (notRevokedNearCache != null) {
+            notRevokedNearCache.purgeExpired();
+        }
+        if (generationNearCache != null) {
+            generationNearCache.purgeExpired();
+        }
+    }
+
+    // Short, index-driven deletes so cleanup never holds locks on a large range at once
+    private void deleteExpiredInBatches(String table, String key, long now) {
+        String sql = "DELETE FROM " + table + " WHERE " + key + " IN ("
+                + "SELECT " + key + " FROM " + table + " WHERE expires_at <= ? LIMIT ?)";
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, now, cleanupBatchSize);
+        } while (deleted == cleanupBatchSize);
+    }
+}
@@ -0,0 +1,13 @@
+package org.hr.platform.store;
+
+/**
+ * What a refresh token resolves to: the account it was issued for, whether that account is a
+ * regular user or a super admin ({@code USER} / {@code SUPERADMIN}), the account's session
+ * generation when it was issued, and when it stops being valid.
+ */
+public record RefreshTokenRecord(String email, String userType, long generation, long expiresAtMillis) {
+
+    public boolean isSuperAdmin() {
+        return "SUPERADMIN".equals(userType);
+    }
+}
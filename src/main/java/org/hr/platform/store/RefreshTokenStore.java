@@ -0,0 +1,54 @@
+package org.hr.platform.store;
+
+/**
+ * Storage backend for refresh tokens, revoked (blacklisted) tokens and per-account session generations.
+ * <p>
+ * Implementations must make {@link #consume(String)} atomic: when several callers
+ * consume the same token concurrently, at most one of them receives the record.
+ */
+public interface RefreshTokenStore {
+
+    void save(String token, RefreshTokenRecord record);
+
+    /**
+     * Returns the live record for the token, or null when it is unknown or expired.
+     */
+    RefreshTokenRecord find(String token);
+
+    /**
+     * Removes the token and returns its record, or null if it was unknown, expired or already consumed.
+     */
+    RefreshTokenRecord consume(String token);
+
+    /**
+     * Remembers the token as revoked until {@code expiresAtMillis}, after which it would be invalid anyway.
+     */
+    void revoke(String token, long expiresAtMillis);
+
+    boolean isRevoked(String token);
+
+    /**
+     * Returns the account's session generation; tokens stamped with a lower one are no longer valid.
+     * 0 means the account's sessions were never revoked, or so long ago that nothing issued before can still be live.
+     */
+    long currentGeneration(String email);
+
+    /**
+     * Like {@link #currentGeneration(String)}, but may answer from a short-lived local copy.
+     */
+    default long recentGeneration(String email) {
+        return currentGeneration(email);
+    }
+
+    /**
+     * Moves the account to a generation above every earlier one and returns it. The store may forget it
+     * after {@code retainUntilMillis}; later generations still start above it because they are never
+     * lower than the time of the revocation.
+     */
+    long advanceGeneration(String email, long retainUntilMillis);
+
+    /**
+     * Drops expired tokens, revocations and generations.
+     */
+    void purgeExpired();
+}
@@ -1,5 +1,6 @@
 package org.hr.platform.util;
 
+import org.hr.platform.security.AuthenticatedUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,4 +14,12 @@ public class SecurityUtil {
         }
         return null;
     }
+
+    public static AuthenticatedUser getCurrentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,30 @@
+package org.hr.platform;
+
+import org.hr.platform.enums.Role;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+
+/**
+ * Unsaved directory entities for tests; each test persists them through whatever it already uses
+ * (EntityManager, repository or JDBC), so the fixtures work inside and outside a test transaction.
+ */
+public final class TestFixtures {
+
+    public static final String TECH_CORP = "Tech Corp";
+    public static final String OTHER_CORP = "Other Corp";
+
+    private TestFixtures() {
+    }
+
+    public static Organization organization(String name) {
+        return Organization.builder().name(name).build();
+    }
+
+    public static User user(String email, Organization organization) {
+        return user(email, Role.EMPLOYEE, organization);
+    }
+
+    public static User user(String email, Role role, Organization organization) {
+        return User.builder().email(email).password("hash").role(role).organization(organization).build();
+    }
+}
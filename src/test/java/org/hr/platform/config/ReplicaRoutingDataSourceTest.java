@@ -0,0 +1,97 @@
+package org.hr.platform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica; each holds a row naming itself.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HikariDataSource replica;
+    private ReplicaRoutingDataSource dataSource;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        HikariDataSource primary = pool("primary");
+        replica = pool("replica-1");
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(replica), 60_000, meterRegistry);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        dataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        assertThat(whoAmI(readOnly)).isEqualTo("replica-1");
+        assertThat(whoAmI(readWrite)).isEqualTo("primary");
+        assertThat(meterRegistry.counter("datasource.routing.connections", "pool", "replica-1", "reason", "read").count()).isEqualTo(1);
+    }
+
+    @Test
+    void readsFollowTheSamePrincipalsRecentWriteToThePrimary() {
+        signIn("admin@techcorp.com");
+        whoAmI(readWrite);
+        assertThat(whoAmI(readOnly)).isEqualTo("primary");
+
+        signIn("someone.else@techcorp.com");
+        assertThat(whoAmI(readOnly)).isEqualTo("replica-1");
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhileTheReplicaIsDown() {
+        replica.close();
+        assertThat(whoAmI(readOnly)).isEqualTo("primary");
+        assertThat(meterRegistry.get("datasource.replica.healthy").gauge().value()).isZero();
+
+        dataSource.checkReplicas(1);
+        assertThat(whoAmI(readOnly)).isEqualTo("primary");
+        assertThat(meterRegistry.counter("datasource.routing.connections", "pool", "primary", "reason", "fallback").count()).isEqualTo(2);
+    }
+
+    private String whoAmI(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        pool.setPoolName(name);
+        pool.setConnectionTimeout(250);
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(20))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return pool;
+    }
+
+    private static void signIn(String email) {
+        User principal = new User(email, "password", List.of());
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null));
+    }
+}
@@ -0,0 +1,62 @@
+package org.hr.platform.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hr.platform.dto.UserDto;
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.enums.Role;
+import org.hr.platform.model.Organization;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class UserRepositoryQueryCountTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void listingIsOneQueryRegardlessOfSize() {
+        for (int org = 0; org < 20; org++) {
+            Organization organization = entityManager.merge(organization("Org " + org));
+            for (int i = 0; i < 5; i++) {
+                entityManager.persist(user("user" + i + "@org" + org + ".com", i == 0 ? Role.ADMIN : Role.EMPLOYEE, organization));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(queriesFor(10)).isEqualTo(1);
+        assertThat(queriesFor(100)).isEqualTo(1);
+    }
+
+    private long queriesFor(int size) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<UserSummary> users = userRepository.findSummariesAfter(0L, Limit.of(size));
+        List<UserDto> dtos = users.stream().map(UserDto::from).toList();
+
+        assertThat(dtos).hasSize(size);
+        assertThat(dtos).allSatisfy(dto -> assertThat(dto.getOrganization().getName()).startsWith("Org "));
+        return statistics.getPrepareStatementCount();
+    }
+}
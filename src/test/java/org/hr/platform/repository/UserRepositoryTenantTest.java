@@ -0,0 +1,64 @@
+package org.hr.platform.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.hr.platform.TestFixtures.OTHER_CORP;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class UserRepositoryTenantTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Organization techCorp;
+    private Organization otherCorp;
+    private User outsider;
+
+    @BeforeEach
+    void setUp() {
+        techCorp = entityManager.merge(organization(TECH_CORP));
+        otherCorp = entityManager.merge(organization(OTHER_CORP));
+        entityManager.persist(user("alice@techcorp.com", techCorp));
+        outsider = entityManager.merge(user("eve@othercorp.com", otherCorp));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void crossTenantLookupsFindNothing() {
+        assertThat(userRepository.findByIdAndOrganizationId(outsider.getId(), techCorp.getId())).isEmpty();
+        assertThat(userRepository.findEmailByIdAndOrganizationId(outsider.getId(), techCorp.getId())).isEmpty();
+        assertThat(userRepository.deleteByIds(techCorp.getId(), List.of(outsider.getId()))).isZero();
+        assertThat(userRepository.findByIdAndOrganizationId(outsider.getId(), otherCorp.getId())).isPresent();
+    }
+
+    @Test
+    void tenantFilterLimitsReadsButNotTheGlobalEmailCheck() {
+        entityManager.unwrap(Session.class)
+                .enableFilter(User.TENANT_FILTER)
+                .setParameter(User.TENANT_PARAMETER, techCorp.getId());
+
+        assertThat(userRepository.findAll()).extracting(User::getEmail).containsExactly("alice@techcorp.com");
+        assertThat(userRepository.findByEmail("eve@othercorp.com")).isEmpty();
+        assertThat(userRepository.findExistingEmails(List.of("eve@othercorp.com"))).containsExactly("eve@othercorp.com");
+    }
+}
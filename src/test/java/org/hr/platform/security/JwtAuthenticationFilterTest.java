@@ -0,0 +1,200 @@
+package org.hr.platform.security;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hr.platform.enums.Role;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.hr.platform.service.JwtService;
+import org.hr.platform.service.RefreshTokenService;
+import org.hr.platform.store.InMemoryRefreshTokenStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Access tokens authenticate from their claims; the database is consulted only when the filter is
+ * configured to (stateful mode or periodic revalidation), and then stale tokens are turned away.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import(CustomUserDetailsService.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "access-token";
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private final SessionRegistry sessionRegistry = new SessionRegistry(new SimpleMeterRegistry(),
+            new InMemoryRefreshTokenStore(new SimpleMeterRegistry(), 100, 100, 60_000), 60_000, 60_000);
+
+    private Statistics statistics;
+    private User employee;
+
+    @BeforeEach
+    void setUp() {
+        Organization techCorp = entityManager.merge(organization(TECH_CORP));
+        employee = entityManager.merge(user("employee@techcorp.com", techCorp));
+        entityManager.flush();
+        entityManager.clear();
+
+        when(jwtService.verify(TOKEN)).thenReturn(JwtClaims.builder()
+                .subject(employee.getEmail())
+                .userType("USER")
+                .role("EMPLOYEE")
+                .userId(employee.getId())
+                .organizationId(techCorp.getId())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessModeBuildsThePrincipalFromClaimsAlone() throws Exception {
+        Authentication authentication = authenticate(filter(true, 0), TOKEN);
+
+        assertThat(authentication.getPrincipal()).isInstanceOfSatisfying(AuthenticatedUser.class, principal -> {
+            assertThat(principal.getEmail()).isEqualTo("employee@techcorp.com");
+            assertThat(principal.getUserId()).isEqualTo(employee.getId());
+            assertThat(principal.getOrganizationId()).isEqualTo(employee.getOrganization().getId());
+            assertThat(principal.isSuperAdmin()).isFalse();
+        });
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("EMPLOYEE");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void statefulModeChecksTheAccountOnEveryRequest() throws Exception {
+        JwtAuthenticationFilter filter = filter(false, 0);
+
+        assertThat(authenticate(filter, TOKEN)).isNotNull();
+        long perRequest = statistics.getPrepareStatementCount();
+        assertThat(perRequest).isPositive();
+
+        assertThat(authenticate(filter, TOKEN)).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2 * perRequest);
+    }
+
+    @Test
+    void revalidationHitsTheDatabaseAtMostOncePerWindow() throws Exception {
+        JwtAuthenticationFilter filter = filter(true, 60);
+
+        assertThat(authenticate(filter, TOKEN)).isNotNull();
+        long firstRequest = statistics.getPrepareStatementCount();
+        assertThat(firstRequest).isPositive();
+
+        assertThat(authenticate(filter, TOKEN)).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstRequest);
+    }
+
+    @Test
+    void tokenIsRejectedAfterARoleChange() throws Exception {
+        employee.setRole(Role.MANAGER);
+        entityManager.merge(employee);
+        entityManager.flush();
+
+        assertThat(authenticate(filter(false, 0), TOKEN)).isNull();
+        assertThat(authenticate(filter(true, 60), TOKEN)).isNull();
+    }
+
+    @Test
+    void tokenIsRejectedAfterTheAccountIsDeleted() throws Exception {
+        entityManager.remove(entityManager.find(User.class, employee.getId()));
+        entityManager.flush();
+
+        assertThat(authenticate(filter(false, 0), TOKEN)).isNull();
+        assertThat(authenticate(filter(true, 60), TOKEN)).isNull();
+    }
+
+    @Test
+    void tokenIsRejectedAfterTheAccountsSessionsAreRevoked() throws Exception {
+        sessionRegistry.revokeAll("employee@techcorp.com");
+
+        assertThat(authenticate(filter(true, 0), TOKEN)).isNull();
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceRevoked() throws Exception {
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, customUserDetailsService,
+                refreshTokenService, new VerifiedTokenCache(true, 10, new SimpleMeterRegistry()), sessionRegistry,
+                true, 0, 100);
+        assertThat(authenticate(filter, TOKEN)).isNotNull();
+
+        when(refreshTokenService.isTokenBlacklisted(TOKEN)).thenReturn(true);
+
+        assertThat(authenticate(filter, TOKEN)).isNull();
+    }
+
+    @Test
+    void invalidTokenLeavesTheRequestUnauthenticated() throws Exception {
+        when(jwtService.verify("garbage")).thenThrow(new MalformedJwtException("Not a JWT"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter(true, 0).doFilter(request("garbage"), response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private JwtAuthenticationFilter filter(boolean stateless, long revalidateAfterSeconds) {
+        return new JwtAuthenticationFilter(jwtService, customUserDetailsService, mock(RefreshTokenService.class),
+                new VerifiedTokenCache(false, 1, new SimpleMeterRegistry()), sessionRegistry,
+                stateless, revalidateAfterSeconds, 100);
+    }
+
+    // Runs one request through the filter and returns the authentication it established, if any
+    private Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(token), new MockHttpServletResponse(), chain);
+        assertThat(chain.getRequest()).isNotNull();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        entityManager.clear();
+        return authentication;
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,112 @@
+package org.hr.platform.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hr.platform.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The limiter under contention: many threads checking a spread of addresses and emails must stay
+ * fast, and many threads racing on one email must never let more than its burst through. Tagged so
+ * it only runs under {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class LoginRateLimiterBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int CHECKS_PER_THREAD = 200_000;
+    private static final int KEYS = 10_000;
+
+    @Test
+    void p99StaysUnderFiftyMicrosecondsAcrossEightThreads() throws Exception {
+        // Limits high enough that nothing is rejected; this measures the bookkeeping alone
+        LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), true, 100_000,
+                1_000_000, 1_000_000, 1_000_000, 1_000_000);
+
+        // Warm up the JIT before measuring
+        run(limiter, CHECKS_PER_THREAD / 10);
+        long[] nanos = run(limiter, CHECKS_PER_THREAD);
+        Arrays.sort(nanos);
+        double p99 = nanos[(int) (nanos.length * 0.99)] / 1_000.0;
+
+        assertThat(p99).as("p99 check latency in µs (p50 %.2f µs)", nanos[nanos.length / 2] / 1_000.0).isLessThan(50.0);
+    }
+
+    @Test
+    void racingAttemptsOnOneEmailNeverExceedItsBurst() throws Exception {
+        // One token a minute, so nothing refills while the threads race
+        LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), true, 100_000,
+                1_000_000, 1_000_000, 1, 5);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        try {
+                            limiter.checkLoginAttempt("10.0." + thread + "." + (i % 250), "victim@techcorp.com");
+                            accepted.incrementAndGet();
+                        } catch (RateLimitExceededException e) {
+                            // expected once the burst is spent
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(accepted.get()).isEqualTo(5);
+    }
+
+    // Every thread checks its own slice of addresses against emails shared by all threads
+    private static long[] run(LoginRateLimiter limiter, int checksPerThread) throws Exception {
+        long[] nanos = new long[THREADS * checksPerThread];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < checksPerThread; i++) {
+                        String ip = "10." + thread + "." + (i % KEYS / 250) + "." + (i % 250);
+                        String email = "user" + (i * 31 % KEYS) + "@techcorp.com";
+                        long begin = System.nanoTime();
+                        limiter.checkLoginAttempt(ip, email);
+                        nanos[thread * checksPerThread + i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return nanos;
+    }
+}
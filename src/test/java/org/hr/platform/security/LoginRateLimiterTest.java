@@ -0,0 +1,90 @@
+package org.hr.platform.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hr.platform.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void allowsTheBurstThenRejectsWithARetryHint() {
+        LoginRateLimiter limiter = limiter(100, 1, 3, 1, 3);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.checkLoginAttempt("10.0.0.1", "user" + i + "@techcorp.com");
+        }
+        assertThatThrownBy(() -> limiter.checkLoginAttempt("10.0.0.1", "other@techcorp.com"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isBetween(1L, 60L));
+
+        // Another address is unaffected
+        limiter.checkLoginAttempt("10.0.0.2", "other@techcorp.com");
+    }
+
+    @Test
+    void limitsAnEmailAcrossAddressesIgnoringCase() {
+        LoginRateLimiter limiter = limiter(100, 1000, 1000, 1, 2);
+
+        limiter.checkLoginAttempt("10.0.0.1", "victim@techcorp.com");
+        limiter.checkLoginAttempt("10.0.0.2", " Victim@TechCorp.com ");
+        assertThatThrownBy(() -> limiter.checkLoginAttempt("10.0.0.3", "victim@techcorp.com"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(meterRegistry.counter("auth.rate-limit.rejected", "key", "email").count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweepDropsOnlyFullyRefilledBuckets() throws InterruptedException {
+        // One token a millisecond per address refills within the sleep; one a minute per email does not
+        LoginRateLimiter limiter = limiter(100, 60_000, 1, 1, 1);
+        limiter.checkLoginAttempt("10.0.0.1", "user@techcorp.com");
+        assertThat(trackedKeys()).isEqualTo(2);
+
+        Thread.sleep(20);
+        limiter.evictIdle();
+
+        assertThat(trackedKeys()).isEqualTo(1);
+        assertThatThrownBy(() -> limiter.checkLoginAttempt("10.0.0.2", "user@techcorp.com"))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void fullTableFailsOpenForNewKeysButKeepsLimitingTrackedOnes() {
+        LoginRateLimiter limiter = limiter(2, 1000, 1000, 1, 1);
+        limiter.checkLoginAttempt("10.0.0.1", "victim@techcorp.com");
+        limiter.checkLoginAttempt("10.0.0.2", "spray-1@techcorp.com");
+
+        // Spraying random emails past the cap must not lock out users the limiter isn't tracking
+        for (int i = 2; i < 50; i++) {
+            limiter.checkLoginAttempt("10.0.0.3", "spray-" + i + "@techcorp.com");
+        }
+        assertThatCode(() -> limiter.checkLoginAttempt("10.0.0.4", "bystander@techcorp.com")).doesNotThrowAnyException();
+        assertThat(meterRegistry.counter("auth.rate-limit.untracked", "key", "email").count()).isEqualTo(49);
+
+        assertThatThrownBy(() -> limiter.checkLoginAttempt("10.0.0.5", "victim@techcorp.com"))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void disabledLimiterAcceptsEverything() {
+        LoginRateLimiter limiter = new LoginRateLimiter(meterRegistry, false, 1, 1, 1, 1, 1);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.checkLoginAttempt("10.0.0.1", "user@techcorp.com");
+        }
+        assertThat(trackedKeys()).isZero();
+    }
+
+    private LoginRateLimiter limiter(int maxKeys, int ipPerMinute, int ipBurst, int emailPerMinute, int emailBurst) {
+        return new LoginRateLimiter(meterRegistry, true, maxKeys, ipPerMinute, ipBurst, emailPerMinute, emailBurst);
+    }
+
+    private double trackedKeys() {
+        return meterRegistry.get("auth.rate-limit.keys").gauge().value();
+    }
+}
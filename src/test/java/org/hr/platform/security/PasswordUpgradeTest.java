@@ -0,0 +1,128 @@
+package org.hr.platform.security;
+
+import jakarta.persistence.EntityManager;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.SuperAdmin;
+import org.hr.platform.model.User;
+import org.hr.platform.repository.SuperAdminRepository;
+import org.hr.platform.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+/**
+ * Logins go through the same provider wiring as SecurityConfig, so outdated hashes are verified
+ * and then rewritten via {@link CustomUserDetailsService#updatePassword}.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import(CustomUserDetailsService.class)
+class PasswordUpgradeTest {
+
+    private static final String PASSWORD = "s3cret-Passw0rd";
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SuperAdminRepository superAdminRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Organization techCorp;
+
+    @BeforeEach
+    void setUp() {
+        techCorp = entityManager.merge(organization(TECH_CORP));
+    }
+
+    @Test
+    void legacyUnprefixedBcryptHashVerifiesAndIsRewrittenWithAPrefix() {
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        saveUser("legacy@techcorp.com", legacy);
+
+        login(encoder(AdaptivePasswordEncoderFactory.BCRYPT, 5), "legacy@techcorp.com", PASSWORD);
+
+        String stored = storedPassword("legacy@techcorp.com");
+        assertThat(stored).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder(AdaptivePasswordEncoderFactory.BCRYPT, 5).matches(PASSWORD, stored)).isTrue();
+    }
+
+    @Test
+    void lowerCostHashIsRehashedAtTheConfiguredCost() {
+        saveUser("cheap@techcorp.com", encoder(AdaptivePasswordEncoderFactory.BCRYPT, 4).encode(PASSWORD));
+
+        login(encoder(AdaptivePasswordEncoderFactory.BCRYPT, 6), "cheap@techcorp.com", PASSWORD);
+
+        assertThat(storedPassword("cheap@techcorp.com")).startsWith("{bcrypt}$2a$06$");
+    }
+
+    @Test
+    void algorithmChangeRehashesOnLogin() {
+        superAdminRepository.save(SuperAdmin.builder()
+                .email("root@platform.com").password(encoder(AdaptivePasswordEncoderFactory.BCRYPT, 4).encode(PASSWORD))
+                .firstName("Root").lastName("Admin").build());
+
+        login(encoder(AdaptivePasswordEncoderFactory.PBKDF2, 4), "root@platform.com", PASSWORD);
+
+        assertThat(superAdminRepository.findByEmail("root@platform.com").orElseThrow().getPassword()).startsWith("{pbkdf2}");
+    }
+
+    @Test
+    void currentHashesAndFailedLoginsAreLeftAlone() {
+        PasswordEncoder encoder = encoder(AdaptivePasswordEncoderFactory.BCRYPT, 4);
+        String current = encoder.encode(PASSWORD);
+        saveUser("current@techcorp.com", current);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        saveUser("legacy@techcorp.com", legacy);
+
+        login(encoder, "current@techcorp.com", PASSWORD);
+        assertThatThrownBy(() -> login(encoder, "legacy@techcorp.com", "wrong-password"))
+                .isInstanceOf(BadCredentialsException.class);
+
+        assertThat(storedPassword("current@techcorp.com")).isEqualTo(current);
+        assertThat(storedPassword("legacy@techcorp.com")).isEqualTo(legacy);
+    }
+
+    private void login(PasswordEncoder encoder, String email, String password) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(customUserDetailsService);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(customUserDetailsService);
+        provider.authenticate(new UsernamePasswordAuthenticationToken(email, password));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static PasswordEncoder encoder(String algorithm, int bcryptStrength) {
+        return AdaptivePasswordEncoderFactory.create(algorithm, bcryptStrength, false, 0);
+    }
+
+    private void saveUser(String email, String passwordHash) {
+        User user = user(email, techCorp);
+        user.setPassword(passwordHash);
+        userRepository.save(user);
+    }
+
+    private String storedPassword(String email) {
+        return userRepository.findByEmail(email).orElseThrow().getPassword();
+    }
+}
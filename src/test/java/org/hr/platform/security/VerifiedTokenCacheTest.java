@@ -0,0 +1,85 @@
+package org.hr.platform.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hr.platform.service.JwtService;
+import org.hr.platform.service.RefreshTokenService;
+import org.hr.platform.store.InMemoryRefreshTokenStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void returnsThePrincipalUntilTheTokenExpires() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, meterRegistry);
+        cache.put("long-lived", principal("a@techcorp.com"), Instant.now().plusSeconds(60));
+        cache.put("short-lived", principal("b@techcorp.com"), Instant.now().plusMillis(20));
+
+        assertThat(cache.get("long-lived").getEmail()).isEqualTo("a@techcorp.com");
+        assertThat(cache.get("short-lived")).isNotNull();
+
+        Thread.sleep(40);
+
+        assertThat(cache.get("short-lived")).isNull();
+        assertThat(cache.get("long-lived")).isNotNull();
+        assertThat(meterRegistry.get("auth.token.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsWhenFullPreferringExpiredEntries() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, meterRegistry);
+        cache.put("expiring", principal("expiring@techcorp.com"), Instant.now().plusMillis(20));
+        for (int i = 0; i < 9; i++) {
+            cache.put("token-" + i, principal("user" + i + "@techcorp.com"), Instant.now().plusSeconds(60));
+        }
+        Thread.sleep(40);
+
+        // Dropping the expired entry makes room without evicting anything live
+        cache.put("token-9", principal("user9@techcorp.com"), Instant.now().plusSeconds(60));
+        assertThat(meterRegistry.get("auth.token.cache.evictions").counter().count()).isZero();
+
+        // Full of live entries: a tenth of the cache goes
+        cache.put("token-10", principal("user10@techcorp.com"), Instant.now().plusSeconds(60));
+        assertThat(meterRegistry.get("auth.token.cache.evictions").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.token.cache.size").gauge().value()).isEqualTo(10);
+        assertThat(cache.get("token-10")).isNotNull();
+    }
+
+    @Test
+    void disabledCacheKeepsNothing() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 10, meterRegistry);
+        cache.put("token", principal("a@techcorp.com"), Instant.now().plusSeconds(60));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(meterRegistry.get("auth.token.cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void blacklistingATokenPurgesItFromTheCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, meterRegistry);
+        InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(meterRegistry, 100, 100, 60_000);
+        SessionRegistry sessionRegistry = new SessionRegistry(meterRegistry, store, 60_000, 60_000);
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.verify("access-token"))
+                .thenReturn(JwtClaims.builder().subject("a@techcorp.com").expiresAt(Instant.now().plusSeconds(60)).build());
+        RefreshTokenService refreshTokenService = new RefreshTokenService(jwtService, cache, sessionRegistry,
+                store, 60_000, 60_000);
+        cache.put("access-token", principal("a@techcorp.com"), Instant.now().plusSeconds(60));
+
+        refreshTokenService.blacklistToken("access-token");
+
+        assertThat(cache.get("access-token")).isNull();
+        assertThat(refreshTokenService.isTokenBlacklisted("access-token")).isTrue();
+    }
+
+    private static AuthenticatedUser principal(String email) {
+        return new AuthenticatedUser(email, 1L, 1L, "EMPLOYEE", "USER", 0);
+    }
+}
@@ -0,0 +1,270 @@
+package org.hr.platform.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hr.platform.dto.ChangeBatch;
+import org.hr.platform.dto.ChangeDto;
+import org.hr.platform.enums.Role;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.exception.ChangeFeedExpiredException;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.hr.platform.repository.ChangeLogRepository;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hr.platform.TestFixtures.OTHER_CORP;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+// Entries must be committed (or rolled back) for real, so tests don't run inside a test transaction
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ChangeFeedService feed;
+    private Organization techCorp;
+    private Organization otherCorp;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        techCorp = organizationRepository.save(organization(TECH_CORP));
+        otherCorp = organizationRepository.save(organization(OTHER_CORP));
+        feed = feed(3_600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+        changeLogRepository.deleteAll();
+        userRepository.deleteAll();
+        organizationRepository.deleteAll();
+    }
+
+    @Test
+    void returnsTheLatestChangePerRecordAfterTheCursor() {
+        String cursor = feed.changesSince(techCorp.getId(), null, null).getNextCursor();
+
+        User jane = create("jane@techcorp.com", techCorp);
+        change(ChangeType.UPDATED, () -> {
+            jane.setRole(Role.MANAGER);
+            return userRepository.save(jane);
+        });
+        User john = create("john@techcorp.com", techCorp);
+        change(ChangeType.DELETED, () -> {
+            userRepository.deleteByIds(techCorp.getId(), List.of(john.getId()));
+            return john;
+        });
+
+        ChangeBatch batch = feed.changesSince(techCorp.getId(), cursor, null);
+        assertThat(batch.getChanges()).extracting(ChangeDto::getId, ChangeDto::getChangeType)
+                .containsExactly(tuple(jane.getId(), ChangeType.UPDATED),
+                        tuple(john.getId(), ChangeType.DELETED));
+        assertThat(batch.getChanges().get(0).getUser().getRole()).isEqualTo(Role.MANAGER);
+        assertThat(batch.isHasMore()).isFalse();
+
+        assertThat(feed.changesSince(techCorp.getId(), batch.getNextCursor(), null).getChanges()).isEmpty();
+    }
+
+    @Test
+    void staysWithinTheOrganizationAndBatches() {
+        String cursor = feed.changesSince(techCorp.getId(), null, null).getNextCursor();
+        create("jane@techcorp.com", techCorp);
+        create("john@techcorp.com", techCorp);
+        create("jane@othercorp.com", otherCorp);
+
+        ChangeBatch first = feed.changesSince(techCorp.getId(), cursor, 1);
+        ChangeBatch second = feed.changesSince(techCorp.getId(), first.getNextCursor(), 1);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getChanges().get(0).getUser().getEmail()).isEqualTo("jane@techcorp.com");
+        assertThat(second.getChanges().get(0).getUser().getEmail()).isEqualTo("john@techcorp.com");
+        assertThat(feed.changesSince(techCorp.getId(), second.getNextCursor(), 1).getChanges()).isEmpty();
+
+        // Superadmins follow every organization
+        assertThat(feed.changesSince(null, cursor, null).getChanges()).hasSize(3);
+    }
+
+    @Test
+    void anEntryThatCommitsAfterAHigherIdIsNotSkipped() throws Exception {
+        String cursor = feed.changesSince(techCorp.getId(), null, null).getNextCursor();
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        // Takes the lower log id, then holds its transaction open past a later change's commit
+        CompletableFuture<User> slow = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            User user = userRepository.save(user("slow@techcorp.com", techCorp));
+            feed.record(DirectoryChangeEvent.user(ChangeType.CREATED, techCorp.getId(), user.getId()));
+            logged.countDown();
+            try {
+                commit.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return user;
+        }));
+        assertThat(logged.await(5, TimeUnit.SECONDS)).isTrue();
+
+        create("fast@techcorp.com", techCorp);
+        ChangeBatch first = feed.changesSince(techCorp.getId(), cursor, null);
+        commit.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        feed.sequence();
+        ChangeBatch second = feed.changesSince(techCorp.getId(), first.getNextCursor(), null);
+
+        assertThat(first.getChanges()).extracting(change -> change.getUser().getEmail()).containsExactly("fast@techcorp.com");
+        assertThat(second.getChanges()).extracting(change -> change.getUser().getEmail()).containsExactly("slow@techcorp.com");
+    }
+
+    @Test
+    void rolledBackChangesAreNeverLogged() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.save(user("ghost@techcorp.com", techCorp));
+            feed.record(DirectoryChangeEvent.user(ChangeType.CREATED, techCorp.getId(), user.getId()));
+            status.setRollbackOnly();
+        });
+
+        assertThat(changeLogRepository.count()).isZero();
+    }
+
+    @Test
+    void rejectsCursorsOlderThanTheRetainedLog() {
+        String ancient = new ChangeBatch.Cursor(0, System.currentTimeMillis() - 7_200_000).encode();
+
+        assertThatThrownBy(() -> feed.changesSince(techCorp.getId(), ancient, null))
+                .isInstanceOf(ChangeFeedExpiredException.class);
+        assertThatThrownBy(() -> feed.changesSince(techCorp.getId(), "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        String wrongPrefix = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("pos:42:" + System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> feed.changesSince(techCorp.getId(), wrongPrefix, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compactionKeepsOnlyTheLatestEntryPerRecord() {
+        feed.shutdown();
+        feed = feed(3_600_000, 0);
+        String cursor = feed.changesSince(techCorp.getId(), null, null).getNextCursor();
+        User jane = create("jane@techcorp.com", techCorp);
+        for (Role role : List.of(Role.MANAGER, Role.ADMIN)) {
+            change(ChangeType.UPDATED, () -> {
+                jane.setRole(role);
+                return userRepository.save(jane);
+            });
+        }
+
+        feed.compact();
+
+        assertThat(changeLogRepository.count()).isEqualTo(1);
+        assertThat(feed.changesSince(techCorp.getId(), cursor, null).getChanges())
+                .singleElement()
+                .satisfies(change -> assertThat(change.getUser().getRole()).isEqualTo(Role.ADMIN));
+    }
+
+    @Test
+    void longPollCompletesWhenAChangeCommits() throws InterruptedException {
+        String cursor = feed.changesSince(techCorp.getId(), null, null).getNextCursor();
+
+        DeferredResult<ChangeBatch> pending = feed.poll(techCorp.getId(), cursor, null, 10);
+        DeferredResult<ChangeBatch> elsewhere = feed.poll(otherCorp.getId(), cursor, null, 10);
+        assertThat(pending.hasResult()).isFalse();
+
+        create("jane@techcorp.com", techCorp);
+        for (int i = 0; i < 100 && !pending.hasResult(); i++) {
+            Thread.sleep(20);
+        }
+
+        assertThat(pending.hasResult()).isTrue();
+        assertThat(((ChangeBatch) pending.getResult()).getChanges()).hasSize(1);
+        assertThat(elsewhere.hasResult()).isFalse();
+    }
+
+    @Test
+    void longPollIsWokenByAChangeCommittedThroughAnotherInstance() throws InterruptedException {
+        String cursor = feed.changesSince(techCorp.getId(), null, null).getNextCursor();
+        DeferredResult<ChangeBatch> pending = feed.poll(techCorp.getId(), cursor, null, 10);
+
+        // Logged and committed without this instance's after-commit listener ever hearing of it
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.save(user("jane@techcorp.com", techCorp));
+            feed.record(DirectoryChangeEvent.user(ChangeType.CREATED, techCorp.getId(), user.getId()));
+        });
+        assertThat(pending.hasResult()).isFalse();
+
+        feed.requestSequencing();
+        for (int i = 0; i < 100 && !pending.hasResult(); i++) {
+            Thread.sleep(20);
+        }
+
+        assertThat(pending.hasResult()).isTrue();
+        assertThat(((ChangeBatch) pending.getResult()).getChanges()).hasSize(1);
+    }
+
+    private ChangeFeedService feed(long retentionMillis) {
+        return feed(retentionMillis, 3_600_000);
+    }
+
+    private ChangeFeedService feed(long retentionMillis, long compactAfterMillis) {
+        OrganizationCatalog catalog = new OrganizationCatalog(organizationRepository, transactionManager, new SimpleMeterRegistry());
+        catalog.reload();
+        return new ChangeFeedService(changeLogRepository, userRepository, catalog, new JdbcTemplate(dataSource),
+                transactionManager, new SimpleMeterRegistry(), 100, 1000, 30, 100, 1000, retentionMillis, compactAfterMillis, 1000);
+    }
+
+    private User create(String email, Organization organization) {
+        return change(ChangeType.CREATED, () -> userRepository.save(user(email, organization)));
+    }
+
+    // Applies the change and logs it in one transaction, then sequences it as the after-commit listener would
+    private User change(ChangeType changeType, Supplier<User> change) {
+        User user = transactionTemplate.execute(status -> {
+            User changed = change.get();
+            feed.record(DirectoryChangeEvent.user(changeType, changed.getOrganization().getId(), changed.getId()));
+            return changed;
+        });
+        feed.sequence();
+        return user;
+    }
+}
@@ -0,0 +1,104 @@
+package org.hr.platform.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hr.platform.enums.Role;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.hr.platform.security.CurrentPrincipal;
+import org.hr.platform.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+/**
+ * The caller's identity comes from the token, so request handling only runs the statements the operation itself needs.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Import({UserService.class, AdminService.class})
+class CurrentPrincipalQueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockitoBean
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @MockitoBean
+    private OrganizationCatalog organizationCatalog;
+
+    private Statistics statistics;
+    private CurrentPrincipal admin;
+    private CurrentPrincipal manager;
+    private User employee;
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = entityManager.merge(organization(TECH_CORP));
+        User adminUser = save("admin@techcorp.com", Role.ADMIN, organization);
+        User managerUser = save("manager@techcorp.com", Role.MANAGER, organization);
+        employee = save("employee@techcorp.com", Role.EMPLOYEE, organization);
+        entityManager.flush();
+        entityManager.clear();
+
+        admin = new CurrentPrincipal(adminUser.getId(), organization.getId(), adminUser.getEmail(), "ADMIN", "USER");
+        manager = new CurrentPrincipal(managerUser.getId(), organization.getId(), managerUser.getEmail(), "MANAGER", "USER");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingIsASingleStatement() {
+        assertThat(userService.getEmployeesInOrg(manager, null, null).getItems()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(adminService.listAllUsersInOrg(admin, null, null, null).getItems()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void profileIsASingleStatement() {
+        assertThat(userService.getProfile(manager).getOrganization().getName()).isEqualTo("Tech Corp");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteNeedsNoCallerLookup() {
+        adminService.deleteUser(admin, employee.getId());
+        // Scoped email lookup for session revocation, reporting-line cleanup (closure rows, reports' manager), then the scoped delete
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    private User save(String email, Role role, Organization organization) {
+        return entityManager.merge(user(email, role, organization));
+    }
+}
@@ -0,0 +1,114 @@
+package org.hr.platform.service;
+
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import(DirectoryVersions.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DirectoryVersionsTest {
+
+    @Autowired
+    private DirectoryVersions directoryVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void userChangesOnlyInvalidateTheirOrganizationAndTheGlobalTag() {
+        String org1 = directoryVersions.organizationTag(1L, "users");
+        String org2 = directoryVersions.organizationTag(2L, "users");
+        String global = directoryVersions.globalTag("users");
+        String organizations = directoryVersions.organizationsTag();
+
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.UPDATED, 1L, 10L));
+
+        assertThat(directoryVersions.organizationTag(1L, "users")).isNotEqualTo(org1);
+        assertThat(directoryVersions.organizationTag(2L, "users")).isEqualTo(org2);
+        assertThat(directoryVersions.globalTag("users")).isNotEqualTo(global);
+        assertThat(directoryVersions.organizationsTag()).isEqualTo(organizations);
+
+        eventPublisher.publishEvent(DirectoryChangeEvent.organization(ChangeType.DELETED, 2L));
+
+        assertThat(directoryVersions.organizationTag(2L, "users")).isNotEqualTo(org2);
+        assertThat(directoryVersions.organizationsTag()).isNotEqualTo(organizations);
+    }
+
+    @Test
+    void tagsAreWeakAndDistinctPerOrganizationAndQuery() {
+        String tag = directoryVersions.organizationTag(3L, "users", null, null, 50);
+
+        assertThat(tag).startsWith("W/\"");
+        assertThat(directoryVersions.organizationTag(4L, "users", null, null, 50)).isNotEqualTo(tag);
+        assertThat(directoryVersions.organizationTag(3L, "users", null, "cursor", 50)).isNotEqualTo(tag);
+        assertThat(directoryVersions.organizationTag(3L, "users", null, null, 50)).isEqualTo(tag);
+    }
+
+    @Test
+    void rolledBackChangesDoNotBumpVersions() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        String before = directoryVersions.organizationTag(5L, "users");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(DirectoryChangeEvent.users(ChangeType.DELETED, 5L, List.of(1L, 2L)));
+            status.setRollbackOnly();
+        });
+        assertThat(directoryVersions.organizationTag(5L, "users")).isEqualTo(before);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(DirectoryChangeEvent.users(ChangeType.DELETED, 5L, List.of(1L, 2L)));
+            // Not visible until the transaction commits
+            assertThat(directoryVersions.organizationTag(5L, "users")).isEqualTo(before);
+        });
+        assertThat(directoryVersions.organizationTag(5L, "users")).isNotEqualTo(before);
+    }
+
+    @Test
+    void currentTagAnswersNotModified() {
+        String tag = directoryVersions.organizationTag(6L, "users");
+
+        assertThat(checkNotModified(tag, tag)).isTrue();
+
+        eventPublisher.publishEvent(DirectoryChangeEvent.user(ChangeType.CREATED, 6L, 20L));
+        assertThat(checkNotModified(tag, directoryVersions.organizationTag(6L, "users"))).isFalse();
+    }
+
+    @Test
+    void disabledVersionsNeverAnswerNotModified() {
+        DirectoryVersions disabled = new DirectoryVersions(false);
+
+        assertThat(disabled.organizationTag(1L, "users")).isNull();
+        assertThat(checkNotModified("W/\"anything\"", disabled.organizationTag(1L, "users"))).isFalse();
+    }
+
+    private static boolean checkNotModified(String ifNoneMatch, String currentTag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/users");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean notModified = new ServletWebRequest(request, response).checkNotModified(currentTag);
+        assertThat(response.getStatus()).isEqualTo(notModified ? 304 : 200);
+        return notModified;
+    }
+}
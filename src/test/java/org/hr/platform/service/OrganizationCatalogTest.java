@@ -0,0 +1,104 @@
+package org.hr.platform.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hr.platform.dto.OrganizationDto;
+import org.hr.platform.enums.OrganizationStatus;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.model.Organization;
+import org.hr.platform.repository.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hr.platform.TestFixtures.OTHER_CORP;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+
+// Refreshes run in their own transaction, so the data has to be committed rather than held in a test transaction
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrganizationCatalogTest {
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrganizationCatalog catalog;
+    private Statistics statistics;
+    private Organization techCorp;
+
+    @BeforeEach
+    void setUp() {
+        techCorp = organizationRepository.save(organization(TECH_CORP));
+        organizationRepository.save(organization(OTHER_CORP));
+
+        meterRegistry = new SimpleMeterRegistry();
+        catalog = new OrganizationCatalog(organizationRepository, transactionManager, meterRegistry);
+        catalog.reload();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        organizationRepository.deleteAll();
+    }
+
+    @Test
+    void servesListingsAndLookupsWithoutQueries() {
+        assertThat(catalog.findAll()).extracting(OrganizationDto::getName).containsExactly("Tech Corp", "Other Corp");
+        assertThat(catalog.findById(techCorp.getId())).map(OrganizationDto::getName).contains("Tech Corp");
+        assertThat(catalog.existsByName("Other Corp")).isTrue();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.counter("organizations.catalog.lookups", "result", "hit").count()).isEqualTo(2);
+    }
+
+    @Test
+    void followsCreatesUpdatesAndDeletes() {
+        Organization newCorp = organizationRepository.save(organization("New Corp"));
+        catalog.onDirectoryChange(DirectoryChangeEvent.organization(ChangeType.CREATED, newCorp.getId()));
+        assertThat(catalog.existsByName("New Corp")).isTrue();
+
+        newCorp.setStatus(OrganizationStatus.DELETING);
+        organizationRepository.save(newCorp);
+        catalog.onDirectoryChange(DirectoryChangeEvent.organization(ChangeType.UPDATED, newCorp.getId()));
+        assertThat(catalog.findById(newCorp.getId())).map(OrganizationDto::getStatus).contains(OrganizationStatus.DELETING);
+
+        organizationRepository.deleteById(newCorp.getId());
+        catalog.onDirectoryChange(DirectoryChangeEvent.organization(ChangeType.DELETED, newCorp.getId()));
+        assertThat(catalog.findAll()).extracting(OrganizationDto::getName).doesNotContain("New Corp");
+        assertThat(meterRegistry.counter("organizations.catalog.reloads", "scope", "single").count()).isEqualTo(3);
+    }
+
+    @Test
+    void unknownIdsFallThroughToTheDatabaseOnce() {
+        Organization lateCorp = organizationRepository.save(organization("Late Corp"));
+        statistics.clear();
+
+        assertThat(catalog.findById(lateCorp.getId())).isPresent();
+        assertThat(catalog.findById(lateCorp.getId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(meterRegistry.counter("organizations.catalog.lookups", "result", "miss").count()).isEqualTo(1);
+    }
+}
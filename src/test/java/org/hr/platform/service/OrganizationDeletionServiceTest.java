@@ -0,0 +1,90 @@
+package org.hr.platform.service;
+
+import org.hr.platform.dto.OrganizationDeletionJobDto;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+// The job runs on its own thread, so the data has to be committed rather than held in a test transaction
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrganizationDeletionServiceTest {
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RefreshTokenService refreshTokenService;
+    private OrganizationDeletionService deletionService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = mock(RefreshTokenService.class);
+        deletionService = new OrganizationDeletionService(organizationRepository, userRepository,
+                refreshTokenService, transactionManager, mock(ApplicationEventPublisher.class), 3, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deletionService.shutdown();
+        userRepository.deleteAll();
+        organizationRepository.deleteAll();
+    }
+
+    @Test
+    void deletesUsersInChunksThenTheOrganization() throws InterruptedException {
+        Organization doomed = organizationRepository.save(organization("Doomed Corp"));
+        Organization survivor = organizationRepository.save(organization("Survivor Corp"));
+        for (int i = 0; i < 7; i++) {
+            userRepository.save(user("user" + i + "@doomed.com", doomed));
+        }
+        userRepository.save(user("user@survivor.com", survivor));
+
+        OrganizationDeletionJobDto started = deletionService.requestDeletion(doomed.getId());
+        assertThat(started.getUsersTotal()).isEqualTo(7);
+        // Asking again while it runs returns the same job
+        assertThat(deletionService.requestDeletion(doomed.getId()).getId()).isEqualTo(started.getId());
+
+        OrganizationDeletionJobDto finished = awaitFinished(started.getId());
+
+        assertThat(finished.getStatus()).isEqualTo("COMPLETED");
+        assertThat(finished.getUsersDeleted()).isEqualTo(7);
+        assertThat(organizationRepository.findById(doomed.getId())).isEmpty();
+        assertThat(userRepository.findAll()).extracting(User::getEmail).containsExactly("user@survivor.com");
+        verify(refreshTokenService).revokeAllSessions("user6@doomed.com");
+    }
+
+    private OrganizationDeletionJobDto awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            OrganizationDeletionJobDto job = deletionService.getJob(jobId).orElseThrow();
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Deletion job did not finish");
+    }
+}
@@ -0,0 +1,138 @@
+package org.hr.platform.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hr.platform.security.SessionRegistry;
+import org.hr.platform.security.VerifiedTokenCache;
+import org.hr.platform.store.InMemoryRefreshTokenStore;
+import org.hr.platform.store.JdbcRefreshTokenStore;
+import org.hr.platform.store.RefreshTokenStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshTokenServiceTest {
+
+    private static final int TOKENS = 20_000;
+    private static final int THREADS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RefreshTokenService refreshTokenService =
+            service(new InMemoryRefreshTokenStore(meterRegistry, TOKENS * 2, TOKENS * 2, 60_000));
+
+    @Test
+    void rotationRecordsThePrincipalType() {
+        String token = refreshTokenService.generateRefreshToken("superadmin@platform.com", "SUPERADMIN");
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotateRefreshToken(token);
+
+        assertThat(rotation.isSuperAdmin()).isTrue();
+        assertThat(rotation.email()).isEqualTo("superadmin@platform.com");
+        assertThat(refreshTokenService.rotateRefreshToken(token)).isNull();
+        assertThat(refreshTokenService.isValidRefreshToken(rotation.refreshToken())).isTrue();
+    }
+
+    @Test
+    void revokingAllSessionsInvalidatesOutstandingRefreshTokens() {
+        String first = refreshTokenService.generateRefreshToken("employee1@techcorp.com", "USER");
+        String second = refreshTokenService.generateRefreshToken("employee1@techcorp.com", "USER");
+        assertThat(refreshTokenService.getActiveSessions("employee1@techcorp.com")).hasSize(2);
+
+        refreshTokenService.revokeAllSessions("employee1@techcorp.com");
+
+        assertThat(refreshTokenService.getActiveSessions("employee1@techcorp.com")).isEmpty();
+        assertThat(refreshTokenService.isValidRefreshToken(first)).isFalse();
+        assertThat(refreshTokenService.rotateRefreshToken(second)).isNull();
+
+        String afterRevoke = refreshTokenService.generateRefreshToken("employee1@techcorp.com", "USER");
+        assertThat(refreshTokenService.rotateRefreshToken(afterRevoke)).isNotNull();
+    }
+
+    @Test
+    void revocationWithTheJdbcStoreHoldsOnEveryNodeAndAcrossRestarts() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        RefreshTokenService nodeA = service(jdbcStore(jdbcTemplate));
+        RefreshTokenService nodeB = service(jdbcStore(jdbcTemplate));
+        String first = nodeA.generateRefreshToken("employee1@techcorp.com", "USER");
+        String second = nodeA.generateRefreshToken("employee1@techcorp.com", "USER");
+
+        nodeA.revokeAllSessions("employee1@techcorp.com");
+
+        assertThat(nodeB.isValidRefreshToken(first)).isFalse();
+        assertThat(nodeB.rotateRefreshToken(first)).isNull();
+        RefreshTokenService restarted = service(jdbcStore(jdbcTemplate));
+        assertThat(restarted.isValidRefreshToken(second)).isFalse();
+        assertThat(restarted.rotateRefreshToken(second)).isNull();
+
+        String afterRevoke = nodeB.generateRefreshToken("employee1@techcorp.com", "USER");
+        assertThat(nodeA.isValidRefreshToken(afterRevoke)).isTrue();
+        assertThat(restarted.rotateRefreshToken(afterRevoke)).isNotNull();
+    }
+
+    @Test
+    void concurrentRotationOfTheSameTokenSucceedsExactlyOnce() throws InterruptedException {
+        List<String> tokens = new ArrayList<>(TOKENS);
+        for (int i = 0; i < TOKENS; i++) {
+            tokens.add(refreshTokenService.generateRefreshToken("user" + i + "@techcorp.com", "USER"));
+        }
+
+        Set<String> rotatedTokens = ConcurrentHashMap.newKeySet();
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        // Every thread tries to redeem every token
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (String token : tokens) {
+                    attempts.incrementAndGet();
+                    RefreshTokenService.Rotation rotation = refreshTokenService.rotateRefreshToken(token);
+                    if (rotation != null) {
+                        successes.incrementAndGet();
+                        rotatedTokens.add(token);
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(attempts.get()).isEqualTo(TOKENS * THREADS);
+        assertThat(successes.get()).isEqualTo(TOKENS);
+        assertThat(rotatedTokens).hasSize(TOKENS);
+    }
+
+    private RefreshTokenService service(RefreshTokenStore store) {
+        SessionRegistry sessionRegistry = new SessionRegistry(meterRegistry, store, 60_000, 60_000);
+        return new RefreshTokenService(new JwtService(sessionRegistry), new VerifiedTokenCache(false, 1, meterRegistry),
+                sessionRegistry, store, 60_000, 60_000);
+    }
+
+    private JdbcRefreshTokenStore jdbcStore(JdbcTemplate jdbcTemplate) {
+        JdbcRefreshTokenStore store = new JdbcRefreshTokenStore(jdbcTemplate, meterRegistry, 100, 5_000, 100);
+        store.createSchema();
+        return store;
+    }
+}
@@ -0,0 +1,132 @@
+package org.hr.platform.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hr.platform.model.Organization;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.ReportingLineRepository;
+import org.hr.platform.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hr.platform.TestFixtures.organization;
+
+/**
+ * Reporting-line queries and moves over a generated org chart that is both wide (six reports per
+ * manager, six levels) and deep (a 40-level chain hanging off one leaf). Every read must be a
+ * single statement and a move must cost the same few statements whatever the subtree size.
+ * Tagged so it only runs under {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ReportingLineBenchmarkTest {
+
+    private static final int FANOUT = 6;
+    private static final int LEVELS = 6;
+    private static final int CHAIN = 40;
+    private static final long FIRST_ID = 1_000_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ReportingLineRepository reportingLineRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void readsAreOneStatementAndMovesAreBounded() {
+        Organization organization = organizationRepository.saveAndFlush(organization("Big Corp"));
+        ReportingLineService service = new ReportingLineService(userRepository, organizationRepository, reportingLineRepository, event -> { }, 50, 500);
+
+        // Users in breadth-first order, so a manager always precedes its reports
+        List<Long> parent = new ArrayList<>();
+        parent.add(null);
+        int levelStart = 0;
+        for (int level = 1; level < LEVELS; level++) {
+            int levelEnd = parent.size();
+            for (int manager = levelStart; manager < levelEnd; manager++) {
+                for (int i = 0; i < FANOUT; i++) {
+                    parent.add((long) manager);
+                }
+            }
+            levelStart = levelEnd;
+        }
+        int chainStart = parent.size() - 1;
+        for (int i = 0; i < CHAIN; i++) {
+            parent.add((long) parent.size() - 1);
+        }
+        long rows = generate(organization.getId(), parent);
+        long chainBottom = FIRST_ID + parent.size() - 1;
+        long chainTop = FIRST_ID + chainStart;
+        long root = FIRST_ID;
+        long firstVp = FIRST_ID + 1;
+        long vpHeadcount = service.countReports(firstVp).totalReports();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertSingleStatement(statistics, () -> service.getDirectReports(organization.getId(), root, null, 50));
+        assertSingleStatement(statistics, () -> service.getReportingLine(organization.getId(), root, null, 50));
+        assertSingleStatement(statistics, () -> service.countReports(root));
+        assertSingleStatement(statistics, () -> service.countReports(chainTop));
+
+        statistics.clear();
+        service.assignManager(organization.getId(), firstVp, chainBottom);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("statements to move %d reports over %d closure rows", vpHeadcount, rows)
+                .isLessThanOrEqualTo(7);
+        assertThat(service.countReports(chainBottom).totalReports()).isEqualTo(vpHeadcount + 1);
+        assertThat(service.countReports(root).totalReports()).isEqualTo(parent.size() - 1);
+        assertThat(service.countReports(chainTop).totalReports()).isEqualTo(CHAIN + vpHeadcount + 1);
+    }
+
+    private void assertSingleStatement(Statistics statistics, Supplier<?> query) {
+        entityManager.clear();
+        statistics.clear();
+        query.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // Writes users and their closure rows directly; returns the number of closure rows
+    private long generate(Long organizationId, List<Long> parent) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> lines = new ArrayList<>();
+        for (int i = 0; i < parent.size(); i++) {
+            Long manager = parent.get(i) == null ? null : FIRST_ID + parent.get(i);
+            users.add(new Object[]{FIRST_ID + i, "user" + i + "@bigcorp.com", "hash", "EMPLOYEE", false, organizationId, manager});
+            int depth = 1;
+            for (Long ancestor = parent.get(i); ancestor != null; ancestor = parent.get(ancestor.intValue())) {
+                lines.add(new Object[]{FIRST_ID + ancestor, FIRST_ID + i, depth++});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, role, first_login, organization_id, manager_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO reporting_line (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)", lines);
+        return lines.size();
+    }
+}
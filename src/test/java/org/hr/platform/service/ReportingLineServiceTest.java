@@ -0,0 +1,159 @@
+package org.hr.platform.service;
+
+import jakarta.persistence.EntityManager;
+import org.hr.platform.dto.CursorPage;
+import org.hr.platform.dto.UserDto;
+import org.hr.platform.enums.Role;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.ReportingLine;
+import org.hr.platform.model.User;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.ReportingLineRepository;
+import org.hr.platform.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hr.platform.TestFixtures.OTHER_CORP;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class ReportingLineServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ReportingLineRepository reportingLineRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private ReportingLineService service;
+    private Organization techCorp;
+    private Map<String, Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReportingLineService(userRepository, organizationRepository, reportingLineRepository, event -> { }, 50, 500);
+        techCorp = organizationRepository.save(organization(TECH_CORP));
+        ids = new HashMap<>();
+        for (String name : List.of("ceo", "cto", "cfo", "dev1", "dev2", "intern", "accountant")) {
+            ids.put(name, userRepository.save(user(name + "@techcorp.com", Role.MANAGER, techCorp)).getId());
+        }
+        // ceo -> cto -> dev1 -> intern, cto -> dev2, ceo -> cfo -> accountant
+        assign("cto", "ceo");
+        assign("cfo", "ceo");
+        assign("dev1", "cto");
+        assign("dev2", "cto");
+        assign("accountant", "cfo");
+        assign("intern", "dev1");
+    }
+
+    @Test
+    void answersDirectReportsSubtreeAndHeadcount() {
+        assertThat(emails(service.getDirectReports(techCorp.getId(), ids.get("ceo"), null, null)))
+                .containsExactly("cto@techcorp.com", "cfo@techcorp.com");
+        assertThat(emails(service.getReportingLine(techCorp.getId(), ids.get("cto"), null, null)))
+                .containsExactly("dev1@techcorp.com", "dev2@techcorp.com", "intern@techcorp.com");
+        assertThat(service.countReports(ids.get("ceo")).directReports()).isEqualTo(2);
+        assertThat(service.countReports(ids.get("ceo")).totalReports()).isEqualTo(6);
+        assertThat(service.countReports(ids.get("intern")).totalReports()).isZero();
+
+        CursorPage<UserDto> firstPage = service.getReportingLine(techCorp.getId(), ids.get("ceo"), null, 4);
+        CursorPage<UserDto> secondPage = service.getReportingLine(techCorp.getId(), ids.get("ceo"), firstPage.getNextCursor(), 4);
+        assertThat(firstPage.getItems()).hasSize(4);
+        assertThat(secondPage.getItems()).hasSize(2);
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertClosureMatchesManagers();
+    }
+
+    @Test
+    void movesAWholeSubtree() {
+        assign("cto", "cfo");
+
+        assertThat(service.countReports(ids.get("cfo")).totalReports()).isEqualTo(5);
+        assertThat(service.countReports(ids.get("ceo")).totalReports()).isEqualTo(6);
+        assertClosureMatchesManagers();
+
+        service.assignManager(techCorp.getId(), ids.get("cto"), null);
+        assertThat(service.countReports(ids.get("ceo")).totalReports()).isEqualTo(2);
+        assertThat(service.countReports(ids.get("cto")).totalReports()).isEqualTo(3);
+        assertClosureMatchesManagers();
+    }
+
+    @Test
+    void rejectsCyclesAndOtherOrganizations() {
+        assertThatThrownBy(() -> assign("ceo", "intern"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> assign("ceo", "ceo"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Organization otherCorp = organizationRepository.save(organization(OTHER_CORP));
+        User outsider = userRepository.save(user("boss@othercorp.com", Role.MANAGER, otherCorp));
+        assertThatThrownBy(() -> service.assignManager(techCorp.getId(), ids.get("dev2"), outsider.getId()))
+                .hasMessage("Manager not found");
+        assertClosureMatchesManagers();
+    }
+
+    @Test
+    void deletingAManagerDetachesTheirReports() {
+        userRepository.deleteByIds(techCorp.getId(), List.of(ids.get("cto")));
+
+        assertThat(service.countReports(ids.get("ceo")).totalReports()).isEqualTo(2);
+        assertThat(service.countReports(ids.get("dev1")).totalReports()).isEqualTo(1);
+        assertThat(userRepository.findById(ids.get("dev1")).orElseThrow().getManager()).isNull();
+        assertClosureMatchesManagers();
+    }
+
+    private void assign(String user, String manager) {
+        service.assignManager(techCorp.getId(), ids.get(user), ids.get(manager));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // The closure table must hold exactly the pairs implied by following manager links upwards
+    private void assertClosureMatchesManagers() {
+        entityManager.flush();
+        entityManager.clear();
+        Map<Long, Long> managerOf = new HashMap<>();
+        userRepository.findAll().forEach(user -> {
+            if (user.getManager() != null) {
+                managerOf.put(user.getId(), user.getManager().getId());
+            }
+        });
+
+        Set<List<Long>> expected = new HashSet<>();
+        for (Long user : managerOf.keySet()) {
+            int depth = 1;
+            for (Long manager = managerOf.get(user); manager != null; manager = managerOf.get(manager)) {
+                expected.add(List.of(manager, user, (long) depth++));
+            }
+        }
+        Set<List<Long>> actual = new HashSet<>();
+        for (ReportingLine line : reportingLineRepository.findAll()) {
+            actual.add(List.of(line.getAncestorId(), line.getDescendantId(), (long) line.getDepth()));
+        }
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static List<String> emails(CursorPage<UserDto> page) {
+        return page.getItems().stream().map(UserDto::getEmail).toList();
+    }
+}
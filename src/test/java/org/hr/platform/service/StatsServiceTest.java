@@ -0,0 +1,72 @@
+package org.hr.platform.service;
+
+import jakarta.persistence.EntityManager;
+import org.hr.platform.dto.DirectoryStats;
+import org.hr.platform.enums.Role;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hr.platform.TestFixtures.OTHER_CORP;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Import(StatsService.class)
+class StatsServiceTest {
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Organization techCorp;
+
+    @BeforeEach
+    void setUp() {
+        techCorp = entityManager.merge(organization(TECH_CORP));
+        Organization otherCorp = entityManager.merge(organization(OTHER_CORP));
+        entityManager.merge(organization("Empty Corp"));
+        save("admin@techcorp.com", Role.ADMIN, false, techCorp);
+        save("a@techcorp.com", Role.EMPLOYEE, true, techCorp);
+        save("b@techcorp.com", Role.EMPLOYEE, false, techCorp);
+        save("c@othercorp.com", Role.EMPLOYEE, true, otherCorp);
+        entityManager.flush();
+    }
+
+    @Test
+    void globalStatsAggregateEveryOrganization() {
+        DirectoryStats stats = statsService.getGlobalStats();
+
+        assertThat(stats.getTotalUsers()).isEqualTo(4);
+        assertThat(stats.getTotalOrganizations()).isEqualTo(3);
+        assertThat(stats.getFirstLoginPending()).isEqualTo(2);
+        assertThat(stats.getUsersByRole()).containsEntry(Role.EMPLOYEE, 3L).containsEntry(Role.ADMIN, 1L);
+        assertThat(stats.getOrganizations()).hasSize(2);
+    }
+
+    @Test
+    void organizationStatsOnlyCountThatOrganization() {
+        DirectoryStats stats = statsService.getOrganizationStats(techCorp.getId());
+
+        assertThat(stats.getTotalUsers()).isEqualTo(3);
+        assertThat(stats.getFirstLoginPending()).isEqualTo(1);
+        assertThat(stats.getOrganizations()).singleElement()
+                .satisfies(headcount -> assertThat(headcount.getUsersByRole()).containsEntry(Role.EMPLOYEE, 2L));
+    }
+
+    private void save(String email, Role role, boolean firstLogin, Organization organization) {
+        User user = user(email, role, organization);
+        user.setFirstLogin(firstLogin);
+        entityManager.persist(user);
+    }
+}
@@ -0,0 +1,136 @@
+package org.hr.platform.service;
+
+import jakarta.persistence.EntityManager;
+import org.hr.platform.dto.BulkUserRequest;
+import org.hr.platform.enums.Role;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.UserRepository;
+import org.hr.platform.security.CurrentPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hr.platform.TestFixtures.OTHER_CORP;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class UserBulkServiceTest {
+
+    private static final CurrentPrincipal SUPER_ADMIN = new CurrentPrincipal(1L, null, "root@platform.com", "SUPER_ADMIN", "SUPERADMIN");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private RefreshTokenService refreshTokenService;
+    private ApplicationEventPublisher eventPublisher;
+    private UserBulkService bulkService;
+
+    private Organization techCorp;
+    private User alice;
+    private User bob;
+    private User outsider;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = mock(RefreshTokenService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        bulkService = new UserBulkService(userRepository, refreshTokenService, eventPublisher, 100);
+
+        techCorp = organizationRepository.save(organization(TECH_CORP));
+        Organization otherCorp = organizationRepository.save(organization(OTHER_CORP));
+        alice = userRepository.save(user("alice@techcorp.com", techCorp));
+        bob = userRepository.save(user("bob@techcorp.com", Role.MANAGER, techCorp));
+        outsider = userRepository.save(user("eve@othercorp.com", otherCorp));
+        entityManager.flush();
+    }
+
+    @Test
+    void idsOutsideTheOrganizationAreIgnored() {
+        BulkUserRequest request = new BulkUserRequest();
+        request.setIds(List.of(alice.getId(), bob.getId(), outsider.getId()));
+
+        assertThat(bulkService.delete(SUPER_ADMIN, techCorp.getId(), request).getAffected()).isEqualTo(2);
+
+        assertThat(userRepository.findAll()).extracting(User::getEmail).containsExactly("eve@othercorp.com");
+        verify(refreshTokenService).revokeAllSessions("alice@techcorp.com");
+        verify(refreshTokenService, never()).revokeAllSessions("eve@othercorp.com");
+    }
+
+    @Test
+    void roleFilterSelectsUsersAndRoleChangeApplies() {
+        BulkUserRequest request = new BulkUserRequest();
+        request.setFilterRole(Role.EMPLOYEE);
+        request.setRole(Role.MANAGER);
+
+        assertThat(bulkService.changeRole(SUPER_ADMIN, techCorp.getId(), request).getAffected()).isEqualTo(1);
+
+        assertThat(userRepository.findById(alice.getId()).orElseThrow().getRole()).isEqualTo(Role.MANAGER);
+        assertThat(userRepository.findById(outsider.getId()).orElseThrow().getRole()).isEqualTo(Role.EMPLOYEE);
+    }
+
+    @Test
+    void roleFilterIsAppliedInBatchesOfAtMostMaxIds() {
+        bulkService = new UserBulkService(userRepository, refreshTokenService, eventPublisher, 2);
+        for (int i = 0; i < 4; i++) {
+            userRepository.save(user("employee" + i + "@techcorp.com", techCorp));
+        }
+        BulkUserRequest request = new BulkUserRequest();
+        request.setFilterRole(Role.EMPLOYEE);
+
+        // alice and four more employees: three statements of at most two ids each
+        assertThat(bulkService.delete(SUPER_ADMIN, techCorp.getId(), request).getAffected()).isEqualTo(5);
+
+        assertThat(userRepository.findAll()).extracting(User::getEmail)
+                .containsExactlyInAnyOrder("bob@techcorp.com", "eve@othercorp.com");
+        verify(eventPublisher, times(3)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void callingAdminIsLeftOutOfTheirOwnSelection() {
+        User carol = userRepository.save(user("carol@techcorp.com", Role.ADMIN, techCorp));
+        User dave = userRepository.save(user("dave@techcorp.com", Role.ADMIN, techCorp));
+        CurrentPrincipal admin = new CurrentPrincipal(carol.getId(), techCorp.getId(), carol.getEmail(), "ADMIN", "USER");
+        BulkUserRequest demoteAdmins = new BulkUserRequest();
+        demoteAdmins.setFilterRole(Role.ADMIN);
+        demoteAdmins.setRole(Role.EMPLOYEE);
+        BulkUserRequest deleteListed = new BulkUserRequest();
+        deleteListed.setIds(List.of(carol.getId(), alice.getId()));
+
+        assertThat(bulkService.changeRole(admin, techCorp.getId(), demoteAdmins).getAffected()).isEqualTo(1);
+        assertThat(bulkService.delete(admin, techCorp.getId(), deleteListed).getAffected()).isEqualTo(1);
+
+        assertThat(userRepository.findById(carol.getId()).orElseThrow().getRole()).isEqualTo(Role.ADMIN);
+        assertThat(userRepository.findById(dave.getId()).orElseThrow().getRole()).isEqualTo(Role.EMPLOYEE);
+        assertThat(userRepository.findById(alice.getId())).isEmpty();
+        verify(refreshTokenService, never()).revokeAllSessions("carol@techcorp.com");
+    }
+
+    @Test
+    void emptySelectionIsRejected() {
+        assertThatThrownBy(() -> bulkService.forcePasswordReset(SUPER_ADMIN, techCorp.getId(), new BulkUserRequest()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,94 @@
+package org.hr.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hr.platform.enums.DataFormat;
+import org.hr.platform.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class UserExportServiceTest {
+
+    private static final int USERS = 50_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new UserExportService(userRepository, new ObjectMapper(), transactionManager, 600_000);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO organizations (name) VALUES ('Tech Corp'), ('Quote \"n\" Comma, Ltd')");
+        Long first = jdbcTemplate.queryForObject("SELECT MIN(id) FROM organizations", Long.class);
+
+        List<Object[]> rows = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            rows.add(new Object[]{"user" + i + "@techcorp.com", "hash", "EMPLOYEE", true, first + (i % 2)});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (email, password, role, first_login, organization_id) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void streamsEveryRowWithoutManagingEntities() {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        exportService.export(null, DataFormat.NDJSON, out);
+
+        assertThat(out.lines).isEqualTo(USERS);
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void csvExportIsScopedToTheOrganizationAndQuotesValues() {
+        Long orgId = entityManager.createQuery("SELECT MAX(o.id) FROM Organization o", Long.class).getSingleResult();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(orgId, DataFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(USERS / 2 + 1);
+        assertThat(lines[0]).isEqualTo("id,email,role,firstLogin,organizationId,organizationName");
+        assertThat(lines[1]).endsWith(",EMPLOYEE,true," + orgId + ",\"Quote \"\"n\"\" Comma, Ltd\"");
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.hr.platform.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.hr.platform.dto.ImportResult;
+import org.hr.platform.enums.DataFormat;
+import org.hr.platform.enums.Role;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private UserImportService importService;
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        importService = new UserImportService(userRepository, organizationRepository, passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                new JdbcTemplate(dataSource), transactionManager, event -> { }, new SimpleMeterRegistry(), 2, 3, 100);
+
+        // Identity ids make both saves insert immediately, so the rows are visible to the JDBC batch
+        organization = organizationRepository.save(organization(TECH_CORP));
+        userRepository.save(user("existing@techcorp.com", organization));
+    }
+
+    @Test
+    void importsValidRowsAndReportsTheRest() {
+        String csv = """
+                email,password,role
+                alice@techcorp.com,"secret,1",MANAGER
+                bob@techcorp.com,secret2,
+                existing@techcorp.com,secret3,EMPLOYEE
+                alice@techcorp.com,secret4,EMPLOYEE
+                not-an-email,secret5,EMPLOYEE
+                carol@techcorp.com,secret6,JANITOR
+                dave@techcorp.com,secret7,SUPER_ADMIN
+                erin@techcorp.com,secret8,ADMIN
+                """;
+
+        ImportResult result = importService.importUsers(organization.getId(), DataFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(result.getErrors()).extracting(ImportResult.RowError::line).containsExactlyInAnyOrder(4L, 5L, 6L, 7L, 8L);
+
+        User alice = userRepository.findByEmail("alice@techcorp.com").orElseThrow();
+        assertThat(alice.getRole()).isEqualTo(Role.MANAGER);
+        assertThat(alice.isFirstLogin()).isTrue();
+        assertThat(passwordEncoder.matches("secret,1", alice.getPassword())).isTrue();
+        assertThat(userRepository.findByEmail("bob@techcorp.com").orElseThrow().getRole()).isEqualTo(Role.EMPLOYEE);
+    }
+
+    @Test
+    void importsNdjson() {
+        String ndjson = """
+                {"email":"frank@techcorp.com","password":"secret1","role":"EMPLOYEE"}
+                {"email":"grace@techcorp.com","password":"x"}
+                """;
+
+        ImportResult result = importService.importUsers(organization.getId(), DataFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.message()).isEqualTo("Password must be at least 6 characters"));
+    }
+
+    // The failed batch is retried row by row in real transactions, so this test commits and cleans up after itself
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rowRejectedByAnotherConstraintIsNotReportedAsADuplicateEmail() {
+        jdbcTemplate().execute("ALTER TABLE users ADD CONSTRAINT chk_not_blocked CHECK (email <> 'blocked@techcorp.com')");
+        try {
+            String csv = """
+                    email,password,role
+                    henry@techcorp.com,secret1,EMPLOYEE
+                    blocked@techcorp.com,secret2,EMPLOYEE
+                    """;
+
+            ImportResult result = importService.importUsers(organization.getId(), DataFormat.CSV,
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(result.getImported()).isEqualTo(1);
+            assertThat(result.getErrors()).singleElement().satisfies(error -> {
+                assertThat(error.line()).isEqualTo(3L);
+                assertThat(error.message()).startsWith("Rejected by the database").doesNotContain("already exists");
+            });
+            assertThat(userRepository.findByEmail("henry@techcorp.com")).isPresent();
+        } finally {
+            jdbcTemplate().execute("ALTER TABLE users DROP CONSTRAINT chk_not_blocked");
+            userRepository.deleteAll();
+            organizationRepository.deleteAll();
+        }
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource);
+    }
+}
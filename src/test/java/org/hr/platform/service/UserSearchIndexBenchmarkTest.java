@@ -0,0 +1,70 @@
+package org.hr.platform.service;
+
+import org.hr.platform.dto.UserSummary;
+import org.hr.platform.enums.Role;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search latency over a generated 100k-user tenant. Queries mix short prefixes, name fragments,
+ * domain fragments (which match nearly everyone) and misses. Tagged so it only runs under
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class UserSearchIndexBenchmarkTest {
+
+    private static final int USERS = 100_000;
+    private static final int QUERIES = 20_000;
+    private static final String[] FIRST = {"james", "mary", "robert", "patricia", "john", "jennifer", "michael", "linda",
+            "david", "elizabeth", "william", "barbara", "richard", "susan", "joseph", "jessica", "thomas", "sarah"};
+    private static final String[] LAST = {"smith", "johnson", "williams", "brown", "jones", "garcia", "miller", "davis",
+            "rodriguez", "martinez", "hernandez", "lopez", "gonzalez", "wilson", "anderson", "thomas", "taylor"};
+
+    @Test
+    void p99StaysUnderTenMillisecondsFor100kUsers() {
+        Random random = new Random(42);
+        List<UserSummary> users = new ArrayList<>(USERS);
+        List<String> emails = new ArrayList<>(USERS);
+        for (long id = 1; id <= USERS; id++) {
+            String email = FIRST[random.nextInt(FIRST.length)] + "." + LAST[random.nextInt(LAST.length)] + id + "@techcorp.com";
+            users.add(new UserSummary(id, email, Role.EMPLOYEE, false, 1L, "Tech Corp"));
+            emails.add(email);
+        }
+
+        UserSearchIndex.OrgIndex index = new UserSearchIndex.OrgIndex();
+        index.rebuild(users);
+
+        List<String> queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            String email = emails.get(random.nextInt(USERS));
+            queries.add(switch (i % 5) {
+                case 0 -> email.substring(0, 1 + random.nextInt(4));
+                case 1 -> email.substring(email.indexOf('.') + 1, email.indexOf('.') + 4);
+                case 2 -> email.substring(email.indexOf('.') + 1, email.indexOf('@'));
+                case 3 -> "techcorp";
+                default -> "zq" + random.nextInt(1000);
+            });
+        }
+
+        // Warm up the JIT before measuring
+        queries.forEach(query -> index.search(query, 20));
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            index.search(queries.get(i), 20);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double p99 = nanos[(int) (QUERIES * 0.99)] / 1_000_000.0;
+
+        assertThat(index.search("james.smith", 20)).allSatisfy(user -> assertThat(user.email()).contains("james.smith"));
+        assertThat(p99).as("p99 search latency in ms (p50 %.3f ms)", nanos[QUERIES / 2] / 1_000_000.0).isLessThan(10.0);
+    }
+}
@@ -0,0 +1,118 @@
+package org.hr.platform.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hr.platform.dto.UserDto;
+import org.hr.platform.event.DirectoryChangeEvent;
+import org.hr.platform.event.DirectoryChangeEvent.ChangeType;
+import org.hr.platform.model.Organization;
+import org.hr.platform.model.User;
+import org.hr.platform.repository.OrganizationRepository;
+import org.hr.platform.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hr.platform.TestFixtures.OTHER_CORP;
+import static org.hr.platform.TestFixtures.TECH_CORP;
+import static org.hr.platform.TestFixtures.organization;
+import static org.hr.platform.TestFixtures.user;
+
+// Index builds run in their own transaction, so the data has to be committed rather than held in a test transaction
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSearchIndexTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UserSearchIndex searchIndex;
+    private Organization techCorp;
+    private User jane;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new UserSearchIndex(userRepository, transactionManager, new SimpleMeterRegistry(), 20, 50, 60_000);
+
+        techCorp = organizationRepository.save(organization(TECH_CORP));
+        Organization otherCorp = organizationRepository.save(organization(OTHER_CORP));
+        jane = userRepository.save(user("jane.smith@techcorp.com", techCorp));
+        userRepository.save(user("john.doe@techcorp.com", techCorp));
+        userRepository.save(user("smithers@techcorp.com", techCorp));
+        userRepository.save(user("jane.smith@othercorp.com", otherCorp));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        organizationRepository.deleteAll();
+    }
+
+    @Test
+    void listsPrefixMatchesBeforeSubstringMatches() {
+        assertThat(emails(searchIndex.search(techCorp.getId(), "Smith", null)))
+                .containsExactly("smithers@techcorp.com", "jane.smith@techcorp.com");
+        assertThat(emails(searchIndex.search(techCorp.getId(), "jo", null))).containsExactly("john.doe@techcorp.com");
+        assertThat(emails(searchIndex.search(techCorp.getId(), "nobody", null))).isEmpty();
+    }
+
+    @Test
+    void staysWithinTheOrganizationAndTheLimit() {
+        assertThat(emails(searchIndex.search(techCorp.getId(), "techcorp", 2))).hasSize(2);
+        assertThat(emails(searchIndex.search(techCorp.getId(), "othercorp", null))).isEmpty();
+        assertThatThrownBy(() -> searchIndex.search(techCorp.getId(), "  ", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void followsUpdatesDeletesAndImports() {
+        searchIndex.search(techCorp.getId(), "jane", null);
+
+        jane.setEmail("jane.jones@techcorp.com");
+        userRepository.save(jane);
+        searchIndex.onDirectoryChange(DirectoryChangeEvent.user(ChangeType.UPDATED, techCorp.getId(), jane.getId()));
+        assertThat(emails(searchIndex.search(techCorp.getId(), "smith", null))).containsExactly("smithers@techcorp.com");
+        assertThat(emails(searchIndex.search(techCorp.getId(), "jones", null))).containsExactly("jane.jones@techcorp.com");
+
+        userRepository.deleteById(jane.getId());
+        searchIndex.onDirectoryChange(DirectoryChangeEvent.user(ChangeType.DELETED, techCorp.getId(), jane.getId()));
+        assertThat(emails(searchIndex.search(techCorp.getId(), "jane", null))).isEmpty();
+
+        // Events that don't carry ids make the index rebuild on the next search
+        userRepository.save(user("jane.new@techcorp.com", techCorp));
+        searchIndex.onDirectoryChange(DirectoryChangeEvent.users(ChangeType.CREATED, techCorp.getId(), List.of()));
+        assertThat(emails(searchIndex.search(techCorp.getId(), "jane", null))).containsExactly("jane.new@techcorp.com");
+    }
+
+    @Test
+    void periodicRebuildPicksUpChangesThatRaisedNoEventHere() {
+        searchIndex.search(techCorp.getId(), "jane", null);
+
+        // As if made through another instance: committed, but this index never hears of it
+        userRepository.save(user("jane.doe@techcorp.com", techCorp));
+        assertThat(emails(searchIndex.search(techCorp.getId(), "jane", null))).containsExactly("jane.smith@techcorp.com");
+
+        searchIndex.rebuildAll();
+        assertThat(emails(searchIndex.search(techCorp.getId(), "jane", null)))
+                .containsExactly("jane.doe@techcorp.com", "jane.smith@techcorp.com");
+    }
+
+    private static List<String> emails(List<UserDto> users) {
+        return users.stream().map(UserDto::getEmail).toList();
+    }
+}
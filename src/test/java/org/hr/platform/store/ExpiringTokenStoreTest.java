@@ -0,0 +1,82 @@
+package org.hr.platform.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpiringTokenStoreTest {
+
+    @Test
+    void purgeDropsEntriesInElapsedBucketsOnly() throws InterruptedException {
+        ExpiringTokenStore<String> store = new ExpiringTokenStore<>(10, 100);
+        long now = System.currentTimeMillis();
+        store.put("a", "A", now + 15);
+        store.put("b", "B", now + 15);
+        store.put("c", "C", now + 60_000);
+        // Filed under the soon-to-elapse bucket, then re-stored with a later expiry
+        store.put("renewed", "old", now + 15);
+        store.put("renewed", "new", now + 60_000);
+
+        Thread.sleep(50);
+
+        assertThat(store.get("a")).isNull();
+        assertThat(store.purgeExpired()).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get("c")).isEqualTo("C");
+        assertThat(store.get("renewed")).isEqualTo("new");
+        assertThat(store.purgeExpired()).isZero();
+    }
+
+    @Test
+    void evictsTheSoonestExpiringEntriesAtTheCap() {
+        ExpiringTokenStore<String> store = new ExpiringTokenStore<>(1000, 3);
+        long now = System.currentTimeMillis();
+        store.put("later", "L", now + 30_000);
+        store.put("soonest", "S", now + 10_000);
+        store.put("middle", "M", now + 20_000);
+
+        store.put("newest", "N", now + 40_000);
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.evictionCount()).isEqualTo(1);
+        assertThat(store.get("soonest")).isNull();
+        assertThat(store.get("middle")).isEqualTo("M");
+        assertThat(store.get("newest")).isEqualTo("N");
+    }
+
+    @Test
+    void evictionGoesByTheCurrentExpiryOfReStoredKeys() {
+        ExpiringTokenStore<String> store = new ExpiringTokenStore<>(1000, 2);
+        long now = System.currentTimeMillis();
+        store.put("extended", "E1", now + 10_000);
+        store.put("extended", "E2", now + 50_000);
+        store.put("soonest", "S", now + 20_000);
+
+        store.put("newest", "N", now + 40_000);
+
+        assertThat(store.evictionCount()).isEqualTo(1);
+        assertThat(store.get("soonest")).isNull();
+        assertThat(store.get("extended")).isEqualTo("E2");
+        assertThat(store.get("newest")).isEqualTo("N");
+    }
+
+    @Test
+    void removeHandsOutALiveEntryOnce() {
+        ExpiringTokenStore<String> store = new ExpiringTokenStore<>(1000, 10);
+        long now = System.currentTimeMillis();
+        store.put("token", "T", now + 60_000);
+        store.put("already-expired", "X", now - 1);
+
+        assertThat(store.remove("token").value()).isEqualTo("T");
+        assertThat(store.remove("token")).isNull();
+        assertThat(store.containsKey("already-expired")).isFalse();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> new ExpiringTokenStore<String>(0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ExpiringTokenStore<String>(1000, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
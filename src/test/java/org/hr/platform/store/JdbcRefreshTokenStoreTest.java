@@ -0,0 +1,113 @@
+package org.hr.platform.store;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcRefreshTokenStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        store = new JdbcRefreshTokenStore(jdbcTemplate, new SimpleMeterRegistry(), 100, 0, 2);
+        store.createSchema();
+    }
+
+    @Test
+    void storesOnlyTheTokenHash() {
+        store.save("refresh-token", new RefreshTokenRecord("user@techcorp.com", "USER", 0, future()));
+
+        String stored = jdbcTemplate.queryForObject("SELECT token_hash FROM refresh_tokens", String.class);
+        assertThat(stored).hasSize(64).isNotEqualTo("refresh-token");
+        assertThat(store.find("refresh-token").email()).isEqualTo("user@techcorp.com");
+    }
+
+    @Test
+    void consumeSucceedsOnlyOnce() {
+        store.save("refresh-token", new RefreshTokenRecord("user@techcorp.com", "USER", 0, future()));
+
+        assertThat(store.consume("refresh-token")).isNotNull();
+        assertThat(store.consume("refresh-token")).isNull();
+        assertThat(store.find("refresh-token")).isNull();
+    }
+
+    @Test
+    void expiredTokensAreInvisibleAndPurgedInBatches() {
+        long past = System.currentTimeMillis() - 1000;
+        for (int i = 0; i < 5; i++) {
+            store.save("expired-" + i, new RefreshTokenRecord("user@techcorp.com", "USER", 0, past));
+        }
+        store.save("live", new RefreshTokenRecord("user@techcorp.com", "USER", 0, future()));
+        store.revoke("old-access-token", past);
+
+        assertThat(store.find("expired-0")).isNull();
+
+        store.purgeExpired();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_tokens", Integer.class)).isZero();
+    }
+
+    @Test
+    void revocationIsVisibleToAnotherNode() {
+        JdbcRefreshTokenStore otherNode = new JdbcRefreshTokenStore(jdbcTemplate, new SimpleMeterRegistry(), 100, 0, 2);
+
+        store.revoke("access-token", future());
+        store.revoke("access-token", future());
+
+        assertThat(otherNode.isRevoked("access-token")).isTrue();
+        assertThat(otherNode.isRevoked("other-token")).isFalse();
+    }
+
+    @Test
+    void notRevokedAnswersAreReusedForTheNegativeCacheWindow() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JdbcRefreshTokenStore cached = new JdbcRefreshTokenStore(jdbcTemplate, meterRegistry, 100, 60_000, 2);
+
+        assertThat(cached.isRevoked("access-token")).isFalse();
+        assertThat(cached.isRevoked("access-token")).isFalse();
+        assertThat(meterRegistry.counter("auth.token.revoked.near-cache.negative-hits").count()).isEqualTo(1);
+
+        // A revocation made on another node shows up once the cached answer expires; one made here, immediately
+        store.revoke("access-token", future());
+        assertThat(cached.isRevoked("access-token")).isFalse();
+        cached.revoke("access-token", future());
+        assertThat(cached.isRevoked("access-token")).isTrue();
+    }
+
+    @Test
+    void generationsArePersistedIncreasingAndPurgedAfterRetention() {
+        assertThat(store.currentGeneration("user@techcorp.com")).isZero();
+
+        long first = store.advanceGeneration("user@techcorp.com", future());
+        long second = store.advanceGeneration("user@techcorp.com", future());
+        assertThat(first).isPositive();
+        assertThat(second).isGreaterThan(first);
+
+        JdbcRefreshTokenStore restarted = new JdbcRefreshTokenStore(jdbcTemplate, new SimpleMeterRegistry(), 100, 0, 2);
+        assertThat(restarted.currentGeneration("user@techcorp.com")).isEqualTo(second);
+        assertThat(restarted.recentGeneration("user@techcorp.com")).isEqualTo(second);
+
+        store.advanceGeneration("old@techcorp.com", System.currentTimeMillis() - 1000);
+        store.purgeExpired();
+        assertThat(store.currentGeneration("old@techcorp.com")).isZero();
+        assertThat(store.currentGeneration("user@techcorp.com")).isEqualTo(second);
+        // Forgetting a generation never lets a later one fall below it
+        assertThat(store.advanceGeneration("old@techcorp.com", future())).isGreaterThan(first);
+    }
+
+    private static long future() {
+        return System.currentTimeMillis() + 60_000;
+    }
+}